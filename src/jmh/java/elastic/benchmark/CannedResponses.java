@@ -0,0 +1,108 @@
+package elastic.benchmark;
+
+import elastic.infra.PersonDocument;
+import elastic.infra.Serializer;
+import elastic.model.Person;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+final class CannedResponses {
+
+    private static final Serializer SERIALIZER = new Serializer();
+    private static final String SHARDS = "\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0}";
+
+    private CannedResponses() {
+    }
+
+    static Person person(int i) {
+        return new Person("id" + i, "Person Number " + i, LocalDate.of(1950 + i % 60, 1 + i % 12, 1 + i % 28),
+                BigDecimal.valueOf(100_000 + i * 37L, 2), i % 3 == 0);
+    }
+
+    static String source(int i) {
+        return SERIALIZER.toJson(PersonDocument.of(person(i)));
+    }
+
+    static byte[] searchResponse(int hits) {
+        var json = new StringBuilder(256 + hits * 160)
+                .append("{\"took\":3,\"timed_out\":false,").append(SHARDS)
+                .append(",\"hits\":{\"total\":{\"value\":").append(hits)
+                .append(",\"relation\":\"eq\"},\"max_score\":1.0,\"hits\":[");
+        for (int i = 0; i < hits; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"_index\":\"persons\",\"_id\":\"id").append(i)
+                    .append("\",\"_score\":1.0,\"_source\":").append(source(i)).append('}');
+        }
+        return json.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] getResponse(String id) {
+        return ("{\"_index\":\"persons\",\"_id\":\"" + id + "\",\"_version\":1,\"_seq_no\":0,"
+                + "\"_primary_term\":1,\"found\":true,\"_source\":" + source(1) + "}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] indexResponse(String id) {
+        return ("{\"_index\":\"persons\",\"_id\":\"" + id + "\",\"_version\":1,\"result\":\"created\","
+                + "\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},\"_seq_no\":0,\"_primary_term\":1}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] bulkResponse(int items) {
+        var json = new StringBuilder(64 + items * 200).append("{\"took\":5,\"errors\":false,\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"index\":{\"_index\":\"persons\",\"_id\":\"bulk").append(i)
+                    .append("\",\"_version\":1,\"result\":\"created\",")
+                    .append("\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},")
+                    .append("\"_seq_no\":0,\"_primary_term\":1,\"status\":201}}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] pointInTime() {
+        return "{\"id\":\"stub-pit\"}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] acknowledged() {
+        return "{\"acknowledged\":true}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] statisticsResponse(boolean typedKeys) {
+        var stats = (typedKeys ? "stats#" : "") + "credit_limit";
+        var range = (typedKeys ? "range#" : "") + "birth_years";
+        var json = "{\"took\":1,\"timed_out\":false," + SHARDS
+                + ",\"hits\":{\"total\":{\"value\":3,\"relation\":\"eq\"},\"max_score\":null,\"hits\":[]}"
+                + ",\"aggregations\":{"
+                + "\"" + stats + "\":{\"count\":3,\"min\":100000.0,\"max\":300000.0,\"avg\":200000.0,\"sum\":600000.0},"
+                + "\"" + range + "\":{\"buckets\":["
+                + "{\"key\":\"1980\",\"from\":3652.0,\"to\":4018.0,\"doc_count\":3,"
+                + "\"" + stats + "\":{\"count\":3,\"min\":100000.0,\"max\":300000.0,\"avg\":200000.0,\"sum\":600000.0}},"
+                + "{\"key\":\"1981\",\"from\":4018.0,\"to\":4383.0,\"doc_count\":0,"
+                + "\"" + stats + "\":{\"count\":0,\"min\":null,\"max\":null,\"avg\":null,\"sum\":0.0}}"
+                + "]}}}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] shards() {
+        return ("{" + SHARDS + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] settings(String index, boolean flat) {
+        var settings = flat
+                ? "{\"index.refresh_interval\":\"1s\",\"index.number_of_replicas\":\"1\"}"
+                : "{\"index\":{\"refresh_interval\":\"1s\",\"number_of_replicas\":\"1\"}}";
+        return ("{\"" + index + "\":{\"settings\":" + settings + "}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] indexCreated(String index) {
+        return ("{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\"" + index + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,98 @@
+package elastic.benchmark;
+
+import elastic.infra.PersonDocument;
+import elastic.infra.Serializer;
+import elastic.model.LocalDateConverter;
+import elastic.model.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code decodeLegacyDocument} reads the former decimal credit limit for comparison with
+ * {@code decodeDocument}; run with {@code -prof gc} to compare allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentMappingBenchmark {
+
+    private final Serializer serializer = new Serializer();
+    private Person person;
+    private PersonDocument document;
+    private String json;
+    private String legacyJson;
+    private LocalDate birthDate;
+    private Integer epochDay;
+
+    @Setup
+    public void setUp() {
+        person = CannedResponses.person(42);
+        document = PersonDocument.of(person);
+        json = serializer.toJson(document);
+        legacyJson = serializer.toJson(LegacyDocument.of(person));
+        birthDate = person.birthDate();
+        epochDay = LocalDateConverter.toInt(birthDate);
+    }
+
+    @Benchmark
+    public PersonDocument personToDocument() {
+        return PersonDocument.of(person);
+    }
+
+    @Benchmark
+    public Person documentToPerson() {
+        return document.toPerson("id42");
+    }
+
+    @Benchmark
+    public String encodeDocument() {
+        return serializer.toJson(document);
+    }
+
+    @Benchmark
+    public byte[] encodeDocumentBytes() {
+        return serializer.toJsonBytes(document);
+    }
+
+    @Benchmark
+    public PersonDocument decodeDocument() {
+        return serializer.fromJson(json, PersonDocument.class);
+    }
+
+    @Benchmark
+    public LegacyDocument decodeLegacyDocument() {
+        return serializer.fromJson(legacyJson, LegacyDocument.class);
+    }
+
+    @Benchmark
+    public Integer localDateToInt() {
+        return LocalDateConverter.toInt(birthDate);
+    }
+
+    @Benchmark
+    public LocalDate intToLocalDate() {
+        return LocalDateConverter.fromInt(epochDay);
+    }
+
+    public static class LegacyDocument {
+        public String name;
+        public Integer birthDate;
+        public BigDecimal creditLimit;
+        public Boolean customer;
+
+        static LegacyDocument of(Person person) {
+            var document = new LegacyDocument();
+            document.name = person.name();
+            document.birthDate = LocalDateConverter.toInt(person.birthDate());
+            document.creditLimit = person.creditLimit();
+            document.customer = person.isCustomer();
+            return document;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package elastic.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process HTTP server replaying canned Elasticsearch responses, so repository calls can be
+ * measured without a cluster. Every response carries the product header the Java client checks.
+ */
+public class ElasticStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[] searchResponse;
+
+    public ElasticStubServer(int searchHits) throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.searchResponse = CannedResponses.searchResponse(searchHits);
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var requestHeaders = exchange.getRequestHeaders();
+            var body = exchange.getRequestBody().readAllBytes();
+            if ("gzip".equals(requestHeaders.getFirst("Content-Encoding"))) {
+                body = new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes();
+            }
+            var uri = exchange.getRequestURI();
+            var response = response(exchange.getRequestMethod(), uri.getPath(), uri.getQuery(), body);
+            var headers = exchange.getResponseHeaders();
+            headers.set("Content-Type", "application/json");
+            headers.set("X-Elastic-Product", "Elasticsearch");
+            var acceptEncoding = requestHeaders.getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                response = gzip(response);
+                headers.set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+        }
+    }
+
+    private static byte[] gzip(byte[] response) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(response);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] response(String method, String path, String query, byte[] body) {
+        if (path.endsWith("/_search") && new String(body, StandardCharsets.UTF_8).contains("\"size\":0")) {
+            return CannedResponses.statisticsResponse(query != null && query.contains("typed_keys=true"));
+        }
+        if (path.endsWith("/_search")) {
+            return searchResponse;
+        }
+        if (path.endsWith("/_bulk")) {
+            return CannedResponses.bulkResponse(countLines(body) / 2);
+        }
+        var docIndex = path.indexOf("/_doc/");
+        if (docIndex >= 0 && "GET".equals(method)) {
+            return CannedResponses.getResponse(path.substring(docIndex + "/_doc/".length()));
+        }
+        if (path.contains("/_doc")) {
+            return CannedResponses.indexResponse("stub");
+        }
+        if (path.endsWith("/_pit") && "POST".equals(method)) {
+            return CannedResponses.pointInTime();
+        }
+        if (path.endsWith("/_refresh") || path.endsWith("/_forcemerge")) {
+            return CannedResponses.shards();
+        }
+        if (path.endsWith("/_settings") && "GET".equals(method)) {
+            var flat = query != null && query.contains("flat_settings=true");
+            return CannedResponses.settings(path.substring(1, path.indexOf('/', 1)), flat);
+        }
+        if ("PUT".equals(method) && path.lastIndexOf('/') == 0) {
+            return CannedResponses.indexCreated(path.substring(1));
+        }
+        return CannedResponses.acknowledged();
+    }
+
+    private static int countLines(byte[] body) {
+        var lines = 0;
+        for (var b : body) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,125 @@
+package elastic.benchmark;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.TrackHits;
+import co.elastic.clients.json.JsonData;
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.ElasticFactory;
+import elastic.infra.PersonDocument;
+import elastic.load.PersonGenerator;
+import elastic.model.MoneyConverter;
+import elastic.model.Person;
+import elastic.model.PersonRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scored query-context searches against the filter-context form the repositories send, both through the
+ * same client call, result type and {@code track_total_hits}. Unlike the other benchmarks this one needs a
+ * real Elasticsearch at {@code ES_URL}; the index is filled once with generated persons and kept between runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FilterContextBenchmark {
+
+    private static final BigDecimal MIN_CREDIT_LIMIT = new BigDecimal("2500.00");
+    private static final BigDecimal MAX_CREDIT_LIMIT = new BigDecimal("5000.00");
+
+    private static final Query CUSTOMERS = Query.of(q -> q.term(t -> t.field("customer").value(true)));
+    private static final Query CREDIT_LIMIT_RANGE = Query.of(q -> q.range(r -> r
+            .field("creditLimitCents")
+            .gte(JsonData.of(MoneyConverter.toCents(MIN_CREDIT_LIMIT)))
+            .lte(JsonData.of(MoneyConverter.toCents(MAX_CREDIT_LIMIT)))));
+
+    @Param({"1000000"})
+    public int indexSize;
+
+    @Param({"10000", "0"})
+    public int trackTotalHitsUpTo;
+
+    private String indexName;
+    private ElasticsearchClient esClient;
+    private PersonRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        indexName = "persons-cents-benchmark-" + indexSize;
+        esClient = ElasticFactory.buildElasticClient();
+        repository = new ElasticClientPersonRepository(indexName);
+        if (!esClient.indices().exists(e -> e.index(indexName)).value()) {
+            fillIndex();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repository.close();
+        esClient._transport().close();
+    }
+
+    @Benchmark
+    public List<Hit<PersonDocument>> scoredGetAllCustomers() throws IOException {
+        return search(CUSTOMERS, true);
+    }
+
+    @Benchmark
+    public List<Hit<PersonDocument>> filteredGetAllCustomers() throws IOException {
+        return search(CUSTOMERS, false);
+    }
+
+    @Benchmark
+    public List<Hit<PersonDocument>> scoredQueryByCreditLimit() throws IOException {
+        return search(CREDIT_LIMIT_RANGE, true);
+    }
+
+    @Benchmark
+    public List<Hit<PersonDocument>> filteredQueryByCreditLimit() throws IOException {
+        return search(CREDIT_LIMIT_RANGE, false);
+    }
+
+    // Both variants send the same clause, hit count setting and result type; the filtered one wraps
+    // the clause in a bool filter and skips scores, as the repositories do.
+    private List<Hit<PersonDocument>> search(Query clause, boolean scored) throws IOException {
+        var builder = new SearchRequest.Builder()
+                .index(indexName)
+                .trackTotalHits(trackTotalHitsUpTo == 0
+                        ? TrackHits.of(t -> t.enabled(false))
+                        : TrackHits.of(t -> t.count(trackTotalHitsUpTo)));
+        if (scored) {
+            builder.query(clause);
+        } else {
+            builder.query(q -> q.bool(b -> b.filter(clause))).trackScores(false);
+        }
+        return esClient.search(builder.build(), PersonDocument.class).hits().hits();
+    }
+
+    private void fillIndex() {
+        repository.createIndex();
+        var generator = new PersonGenerator(42);
+        var bulkLoad = repository.beginBulkLoad(1);
+        try {
+            var batch = new ArrayList<Person>(10_000);
+            for (int i = 0; i < indexSize; i++) {
+                batch.add(generator.next());
+                if (batch.size() == 10_000 || i == indexSize - 1) {
+                    repository.saveAll(batch);
+                    batch.clear();
+                }
+            }
+        } finally {
+            bulkLoad.close();
+        }
+    }
+}
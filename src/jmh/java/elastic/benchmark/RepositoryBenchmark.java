@@ -0,0 +1,84 @@
+package elastic.benchmark;
+
+import elastic.infra.ElasticClientJsonPersonRepository;
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.Person;
+import elastic.model.PersonRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * End-to-end repository calls against {@link ElasticStubServer}: they measure client-side cost
+ * (serialization, HTTP stack, decoding), not Elasticsearch itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final String INDEX_NAME = "persons";
+
+    @Param({"HttpClientJson", "ElasticClientJson", "ElasticClient"})
+    public String implementation;
+
+    @Param({"100"})
+    public int searchHits;
+
+    private ElasticStubServer stub;
+    private PersonRepository repository;
+    private List<Person> bulkPersons;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stub = new ElasticStubServer(searchHits);
+        var options = new RepositoryOptions.Builder()
+                .nodes(NodeSettings.of(stub.url()))
+                .build();
+        repository = switch (implementation) {
+            case "HttpClientJson" -> new HttpClientJsonPersonRepository(INDEX_NAME, options);
+            case "ElasticClientJson" -> new ElasticClientJsonPersonRepository(INDEX_NAME, options);
+            case "ElasticClient" -> new ElasticClientPersonRepository(INDEX_NAME, options);
+            default -> throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+        bulkPersons = IntStream.range(0, 100).mapToObj(CannedResponses::person).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public Person save() {
+        var person = CannedResponses.person(7);
+        repository.save(person);
+        return person;
+    }
+
+    @Benchmark
+    public Object saveAll100() {
+        return repository.saveAll(bulkPersons);
+    }
+
+    @Benchmark
+    public Optional<Person> get() {
+        return repository.get("id1");
+    }
+
+    @Benchmark
+    public List<Person> queryByName() {
+        return repository.queryByName("number");
+    }
+}
@@ -0,0 +1,77 @@
+package elastic.benchmark;
+
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.json.JsonpDeserializer;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import elastic.infra.PersonDocument;
+import elastic.infra.SearchResponseReader;
+import elastic.infra.Serializer;
+import elastic.infra.WireFormat;
+import elastic.model.PersonBatch;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code httpClientBatchReader} decodes into one {@link PersonBatch} reused across invocations, as a
+ * paged scan does; run with {@code -prof gc} to compare its allocations with the per-hit readers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchDecodingBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int hits;
+
+    private final Serializer serializer = new Serializer();
+    private final SearchResponseReader searchResponseReader = new SearchResponseReader(serializer);
+    private final JacksonJsonpMapper mapper = new JacksonJsonpMapper();
+    private final JsonpDeserializer<SearchResponse<PersonDocument>> documentDeserializer =
+            SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(PersonDocument.class));
+    private final JsonpDeserializer<SearchResponse<ObjectNode>> objectNodeDeserializer =
+            SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(ObjectNode.class));
+    private final PersonBatch batch = new PersonBatch();
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = CannedResponses.searchResponse(hits);
+    }
+
+    @Benchmark
+    public void httpClientStreamingReader(Blackhole blackhole) throws IOException {
+        searchResponseReader.read(new ByteArrayInputStream(payload), blackhole::consume);
+    }
+
+    @Benchmark
+    public PersonBatch httpClientBatchReader() throws IOException {
+        batch.clear();
+        searchResponseReader.readBatch(new ByteArrayInputStream(payload), WireFormat.JSON, batch);
+        return batch;
+    }
+
+    @Benchmark
+    public void elasticClientDocuments(Blackhole blackhole) {
+        try (var parser = mapper.jsonProvider().createParser(new ByteArrayInputStream(payload))) {
+            var response = documentDeserializer.deserialize(parser, mapper);
+            response.hits().hits().forEach(hit -> blackhole.consume(hit.source().toPerson(hit.id())));
+        }
+    }
+
+    @Benchmark
+    public void elasticClientJsonTree(Blackhole blackhole) {
+        try (var parser = mapper.jsonProvider().createParser(new ByteArrayInputStream(payload))) {
+            var response = objectNodeDeserializer.deserialize(parser, mapper);
+            response.hits().hits().forEach(hit -> blackhole.consume(
+                    serializer.fromTree(hit.source(), PersonDocument.class).toPerson(hit.id())));
+        }
+    }
+}
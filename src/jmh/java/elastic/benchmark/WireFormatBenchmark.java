@@ -0,0 +1,69 @@
+package elastic.benchmark;
+
+import elastic.infra.PersonDocument;
+import elastic.infra.SearchResponseReader;
+import elastic.infra.Serializer;
+import elastic.infra.WireFormat;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encoding of {@link PersonDocument} batches and decoding of search responses per {@link WireFormat}.
+ * The payload size is reported next to the times as the {@code payloadBytes} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public WireFormat format;
+
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    private final Serializer serializer = new Serializer();
+    private final SearchResponseReader searchResponseReader = new SearchResponseReader(serializer);
+    private List<PersonDocument> documents;
+    private byte[] searchResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        documents = IntStream.range(0, batchSize)
+                .mapToObj(i -> PersonDocument.of(CannedResponses.person(i)))
+                .toList();
+        var json = CannedResponses.searchResponse(batchSize);
+        var response = serializer.fromBytes(new ByteArrayInputStream(json), WireFormat.JSON, Map.class);
+        searchResponse = serializer.toBytes(response, format);
+    }
+
+    @Benchmark
+    public byte[] encodeDocuments(PayloadSize payloadSize) {
+        var bytes = serializer.toBytes(documents, format);
+        payloadSize.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public void decodeSearchResponse(Blackhole blackhole, PayloadSize payloadSize) throws IOException {
+        payloadSize.payloadBytes = searchResponse.length;
+        searchResponseReader.read(new ByteArrayInputStream(searchResponse), format, blackhole::consume);
+    }
+
+    // Last payload size of the iteration; EVENTS counters are reported as they are, not as rates.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+}
@@ -3,9 +3,12 @@ package elastic;
 import elastic.infra.ElasticClientPersonRepository;
 import elastic.infra.HttpClientJsonPersonRepository;
 import elastic.infra.ElasticClientJsonPersonRepository;
+import elastic.load.LoadTest;
+import elastic.load.LoadTestOptions;
 import elastic.model.Person;
 import elastic.model.PersonNotFoundException;
 import elastic.model.PersonRepository;
+import elastic.model.RefreshPolicy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -15,28 +18,74 @@ import java.util.function.Supplier;
 public class App {
 
     private static final String INDEX_NAME = "persons";
-    private static final PersonRepository PERSON_REPOSITORY = choosePersonRepository();
+    private static PersonRepository personRepository;
 
     public static void main(String[] args) {
-        PERSON_REPOSITORY.createIndex();
+        if (LoadTestOptions.requested(args)) {
+            runLoadTest(args);
+            return;
+        }
+        if (args.length > 0) {
+            printUsage(args);
+            return;
+        }
+        personRepository = choosePersonRepository();
+        personRepository.createIndex();
         try {
             insertPersons();
             insertUpdateGetPerson();
-            waitForIndexing();
             getAllPersons();
             getAllCustomers();
             queryPersonByName();
             queryPersonByCreditLimit();
         } finally {
-            PERSON_REPOSITORY.deleteIndex();
+            try {
+                personRepository.deleteIndex();
+            } finally {
+                personRepository.close();
+            }
+        }
+    }
+
+    private static void runLoadTest(String[] args) {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadTest(options, System.out).run();
+    }
+
+    private static void printUsage(String[] args) {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
         }
+        System.err.println("Options need --load-test: " + String.join(" ", args));
+        System.err.println(LoadTestOptions.USAGE);
+        System.exit(2);
     }
 
     private static void insertPersons() {
-        insertPerson(new Person("John", dateOf(1980, 12, 20), BigDecimal.valueOf(1000), false));
-        insertPerson(new Person("Hilary", dateOf(1985, 8, 5), BigDecimal.valueOf(1500), true));
-        insertPerson(new Person("Anna Johnson", dateOf(1980, 11, 21), BigDecimal.valueOf(3000), true));
-        insertPerson(new Person("Joseph Johnson", dateOf(1980, 10, 22), BigDecimal.valueOf(2000), false));
+        var persons = List.of(
+                new Person("John", dateOf(1980, 12, 20), BigDecimal.valueOf(1000), false),
+                new Person("Hilary", dateOf(1985, 8, 5), BigDecimal.valueOf(1500), true),
+                new Person("Anna Johnson", dateOf(1980, 11, 21), BigDecimal.valueOf(3000), true),
+                new Person("Joseph Johnson", dateOf(1980, 10, 22), BigDecimal.valueOf(2000), false));
+        var result = personRepository.saveAll(persons, RefreshPolicy.WAIT_FOR);
+        result.items().forEach(item -> {
+            if (item.succeeded()) {
+                showPerson(item.person(), "INSERTED");
+            } else {
+                System.out.println("--- NOT INSERTED: " + item.person().name() + " ---");
+                System.out.println(item.error());
+                System.out.println();
+            }
+        });
     }
 
     private static PersonRepository choosePersonRepository() {
@@ -87,46 +136,41 @@ public class App {
 
     private static void insertUpdateGetPerson() {
         var person = new Person("Emma", dateOf(1980, 12, 20), BigDecimal.valueOf(0), false);
-        PERSON_REPOSITORY.save(person);
+        personRepository.save(person);
         showPerson(person, "INSERTED");
         person.updateCreditLimit(BigDecimal.valueOf(1500));
-        PERSON_REPOSITORY.save(person);
+        personRepository.save(person, RefreshPolicy.WAIT_FOR);
         showPerson(person, "UPDATED");
         person = getById(person.id());
         showPerson(person, "GET");
     }
 
     private static Person getById(String id) {
-        return PERSON_REPOSITORY.get(id).orElseThrow(
+        return personRepository.get(id).orElseThrow(
                 () -> new PersonNotFoundException(id));
     }
 
     private static void getAllPersons() {
-        showPersons(PERSON_REPOSITORY.getAll(false), "ALL PERSONS");
+        showPersons(personRepository.getAll(false), "ALL PERSONS");
     }
 
     private static void getAllCustomers() {
-        showPersons(PERSON_REPOSITORY.getAll(true), "ALL CUSTOMERS");
+        showPersons(personRepository.getAll(true), "ALL CUSTOMERS");
     }
 
     private static void queryPersonByName() {
         var name = "johnson";
-        var persons = PERSON_REPOSITORY.queryByName(name);
+        var persons = personRepository.queryByName(name);
         showPersons(persons, "QUERY BY NAME: " + name);
     }
 
     private static void queryPersonByCreditLimit() {
         var min = BigDecimal.valueOf(1500);
         var max = BigDecimal.valueOf(2000);
-        var persons = PERSON_REPOSITORY.queryByCreditLimit(min, max);
+        var persons = personRepository.queryByCreditLimit(min, max);
         showPersons(persons, "QUERY BY CREDIT LIMIT: " + min + ".." + max);
     }
 
-    private static void insertPerson(Person person) {
-        PERSON_REPOSITORY.save(person);
-        showPerson(person, "INSERTED");
-    }
-
     private static LocalDate dateOf(int year, int month, int day) {
         return LocalDate.of(year, month, day);
     }
@@ -162,12 +206,6 @@ public class App {
         };
     }
 
-    private static void waitForIndexing() {
-        System.out.println("Waiting for indexing...");
-        sleep(2000);
-        System.out.println();
-    }
-
     private static void sleep(int delay) {
         try {
             Thread.sleep(delay);
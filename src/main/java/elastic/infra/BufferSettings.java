@@ -0,0 +1,23 @@
+package elastic.infra;
+
+import java.time.Duration;
+import java.util.Objects;
+
+public record BufferSettings(BulkLimits flushLimits, Duration maxDelay, int capacity, int maxInFlightRequests) {
+
+    public static final BufferSettings DEFAULT = new BufferSettings(
+            BulkLimits.DEFAULT, Duration.ofSeconds(1), 10_000, 2);
+
+    public BufferSettings {
+        Objects.requireNonNull(flushLimits, "Flush limits are required!");
+        if (maxDelay.toMillis() < 1) {
+            throw new IllegalArgumentException("Max delay must be at least one millisecond!");
+        }
+        if (capacity < flushLimits.maxDocuments()) {
+            throw new IllegalArgumentException("Buffer capacity cannot be smaller than a flush batch!");
+        }
+        if (maxInFlightRequests < 1) {
+            throw new IllegalArgumentException("Max in-flight requests must be positive!");
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package elastic.infra;
+
+import elastic.model.BulkLoad;
+import elastic.model.BirthYearBucket;
+import elastic.model.BulkResult;
+import elastic.model.CreditLimitStats;
+import elastic.model.Person;
+import elastic.model.PersonField;
+import elastic.model.PersonProjection;
+import elastic.model.PersonRepository;
+import elastic.model.RefreshPolicy;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind decorator: {@link #save(Person)} only buffers the person, which is written later
+ * through {@link PersonRepository#saveAll(Collection)}. IDs are back-filled when its batch is written,
+ * and reads do not see buffered persons until they are flushed. A save asking for a
+ * {@link RefreshPolicy} other than {@code NONE} flushes the buffer and is written straight through, as is
+ * every {@code saveAll}, so it never lands before persons saved earlier.
+ */
+public class BufferedPersonRepository implements PersonRepository {
+
+    private static final Logger LOGGER = Logger.getLogger(BufferedPersonRepository.class.getName());
+    private static final int DOCUMENT_OVERHEAD_BYTES = 96;
+
+    private final PersonRepository delegate;
+    private final BufferSettings settings;
+    private final BulkFailureListener failureListener;
+    private final Semaphore capacity;
+    private final Semaphore inFlightRequests;
+    private final ExecutorService flushExecutor;
+    private final ScheduledExecutorService scheduler;
+    private List<Person> buffer = new ArrayList<>();
+    private long bufferBytes;
+    private long oldestNanos;
+    private boolean closed;
+
+    public BufferedPersonRepository(PersonRepository delegate, BulkFailureListener failureListener) {
+        this(delegate, BufferSettings.DEFAULT, failureListener);
+    }
+
+    public BufferedPersonRepository(PersonRepository delegate, BufferSettings settings,
+                                    BulkFailureListener failureListener) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.failureListener = failureListener;
+        this.capacity = new Semaphore(settings.capacity());
+        this.inFlightRequests = new Semaphore(settings.maxInFlightRequests());
+        this.flushExecutor = Executors.newFixedThreadPool(settings.maxInFlightRequests(),
+                daemonThreads("buffered-flush"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("buffered-flush-scheduler"));
+        var period = Math.max(1, settings.maxDelay().toMillis() / 4);
+        scheduler.scheduleWithFixedDelay(this::flushIfDue, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void save(Person person) {
+        acquire(capacity, 1);
+        List<Person> batch = null;
+        synchronized (this) {
+            if (closed) {
+                capacity.release();
+                throw new IllegalStateException("Buffered repository is closed!");
+            }
+            if (buffer.isEmpty()) {
+                oldestNanos = System.nanoTime();
+            }
+            buffer.add(person);
+            bufferBytes += estimateBytes(person);
+            var limits = settings.flushLimits();
+            if (buffer.size() >= limits.maxDocuments() || bufferBytes >= limits.maxBytes()) {
+                batch = drain();
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    @Override
+    public void save(Person person, RefreshPolicy refreshPolicy) {
+        if (refreshPolicy == RefreshPolicy.NONE) {
+            save(person);
+        } else {
+            flush();
+            delegate.save(person, refreshPolicy);
+        }
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons) {
+        flush();
+        return delegate.saveAll(persons);
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons, RefreshPolicy refreshPolicy) {
+        flush();
+        return delegate.saveAll(persons, refreshPolicy);
+    }
+
+    public void flush() {
+        List<Person> batch;
+        synchronized (this) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+        awaitInFlightRequests();
+    }
+
+    @Override
+    public Optional<Person> get(String id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public Map<String, Person> getMany(Collection<String> ids) {
+        return delegate.getMany(ids);
+    }
+
+    @Override
+    public List<Person> getAll(boolean onlyCustomers) {
+        return delegate.getAll(onlyCustomers);
+    }
+
+    @Override
+    public List<PersonProjection> getAll(boolean onlyCustomers, Set<PersonField> fields) {
+        return delegate.getAll(onlyCustomers, fields);
+    }
+
+    @Override
+    public Stream<Person> streamAll(boolean onlyCustomers) {
+        return delegate.streamAll(onlyCustomers);
+    }
+
+    @Override
+    public List<Person> queryByName(String name) {
+        return delegate.queryByName(name);
+    }
+
+    @Override
+    public List<PersonProjection> queryByName(String name, Set<PersonField> fields) {
+        return delegate.queryByName(name, fields);
+    }
+
+    @Override
+    public List<Person> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue) {
+        return delegate.queryByCreditLimit(minValue, maxValue);
+    }
+
+    @Override
+    public List<PersonProjection> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue,
+                                                     Set<PersonField> fields) {
+        return delegate.queryByCreditLimit(minValue, maxValue, fields);
+    }
+
+    @Override
+    public long count(boolean onlyCustomers) {
+        return delegate.count(onlyCustomers);
+    }
+
+    @Override
+    public CreditLimitStats creditLimitStats(boolean onlyCustomers) {
+        return delegate.creditLimitStats(onlyCustomers);
+    }
+
+    @Override
+    public List<BirthYearBucket> histogramByBirthYear(int fromYear, int toYear, boolean onlyCustomers) {
+        return delegate.histogramByBirthYear(fromYear, toYear, onlyCustomers);
+    }
+
+    @Override
+    public void refresh() {
+        flush();
+        delegate.refresh();
+    }
+
+    @Override
+    public BulkLoad beginBulkLoad(int maxNumSegments) {
+        flush();
+        var bulkLoad = delegate.beginBulkLoad(maxNumSegments);
+        return () -> {
+            try {
+                flush();
+            } finally {
+                bulkLoad.close();
+            }
+        };
+    }
+
+    @Override
+    public void createIndex() {
+        delegate.createIndex();
+    }
+
+    @Override
+    public void deleteIndex() {
+        flush();
+        delegate.deleteIndex();
+    }
+
+    @Override
+    public long reindexFrom(String sourceIndex) {
+        flush();
+        return delegate.reindexFrom(sourceIndex);
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        scheduler.shutdown();
+        try {
+            awaitTermination(scheduler);
+            flush();
+        } finally {
+            flushExecutor.shutdown();
+            delegate.close();
+        }
+    }
+
+    // Must not throw: an exception would cancel the periodic flush.
+    private void flushIfDue() {
+        List<Person> batch;
+        synchronized (this) {
+            if (buffer.isEmpty() || System.nanoTime() - oldestNanos < settings.maxDelay().toNanos()) {
+                return;
+            }
+            batch = drain();
+        }
+        try {
+            dispatch(batch);
+        } catch (RuntimeException e) {
+            LOGGER.severe("Scheduled flush error: " + e.getMessage());
+            batch.forEach(person -> failureListener.onFailure(person, String.valueOf(e.getMessage())));
+        }
+    }
+
+    private List<Person> drain() {
+        var batch = buffer;
+        buffer = new ArrayList<>();
+        bufferBytes = 0;
+        return batch;
+    }
+
+    // Batches run concurrently, so two saves of the same person in different batches
+    // may reach the cluster out of order when more than one request is in flight.
+    private void dispatch(List<Person> batch) {
+        acquire(inFlightRequests, 1);
+        try {
+            flushExecutor.execute(() -> {
+                try {
+                    writeBatch(batch);
+                } finally {
+                    inFlightRequests.release();
+                    capacity.release(batch.size());
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlightRequests.release();
+            capacity.release(batch.size());
+            throw e;
+        }
+    }
+
+    private void writeBatch(List<Person> batch) {
+        try {
+            var result = delegate.saveAll(batch);
+            result.failures().forEach(item -> failureListener.onFailure(item.person(), item.error()));
+        } catch (RuntimeException e) {
+            LOGGER.severe("Buffered save error: " + e.getMessage());
+            batch.forEach(person -> failureListener.onFailure(person, String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void awaitInFlightRequests() {
+        acquire(inFlightRequests, settings.maxInFlightRequests());
+        inFlightRequests.release(settings.maxInFlightRequests());
+    }
+
+    private void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(settings.maxDelay().toMillis() + 1000, TimeUnit.MILLISECONDS)) {
+                LOGGER.warning("Timed out waiting for scheduled flush to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void acquire(Semaphore semaphore, int permits) {
+        try {
+            semaphore.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for buffer space!", e);
+        }
+    }
+
+    // Daemon threads, so a repository that is never closed does not keep the JVM alive.
+    private static ThreadFactory daemonThreads(String name) {
+        var threads = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, name + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static long estimateBytes(Person person) {
+        return DOCUMENT_OVERHEAD_BYTES + person.name().length();
+    }
+
+}
@@ -0,0 +1,44 @@
+package elastic.infra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+public class BulkBatches {
+
+    private BulkBatches() {
+    }
+
+    public static <T> List<List<T>> partition(List<T> items, int size) {
+        var batches = new ArrayList<List<T>>();
+        for (int from = 0; from < items.size(); from += size) {
+            batches.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return batches;
+    }
+
+    /**
+     * Splits the items into consecutive batches honoring both limits. An item bigger
+     * than the byte limit is never dropped: it is sent alone in its own batch.
+     */
+    public static <T> List<List<T>> partition(List<T> items, ToLongFunction<T> sizeOf, BulkLimits limits) {
+        var batches = new ArrayList<List<T>>();
+        var batch = new ArrayList<T>();
+        long batchBytes = 0;
+        for (var item : items) {
+            var itemBytes = sizeOf.applyAsLong(item);
+            if (!batch.isEmpty() && (batch.size() >= limits.maxDocuments()
+                    || batchBytes + itemBytes > limits.maxBytes())) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                batchBytes = 0;
+            }
+            batch.add(item);
+            batchBytes += itemBytes;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
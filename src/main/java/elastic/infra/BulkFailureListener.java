@@ -0,0 +1,8 @@
+package elastic.infra;
+
+import elastic.model.Person;
+
+@FunctionalInterface
+public interface BulkFailureListener {
+    void onFailure(Person person, String error);
+}
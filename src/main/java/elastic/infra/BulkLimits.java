@@ -0,0 +1,15 @@
+package elastic.infra;
+
+public record BulkLimits(int maxDocuments, long maxBytes) {
+
+    public static final BulkLimits DEFAULT = new BulkLimits(1000, 5L * 1024 * 1024);
+
+    public BulkLimits {
+        if (maxDocuments < 1) {
+            throw new IllegalArgumentException("Bulk max documents must be positive!");
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Bulk max bytes must be positive!");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package elastic.infra;
+
+import java.time.Duration;
+import java.util.Objects;
+
+public record CacheSettings(int maxEntries, long maxBytes, Duration timeToLive, Duration negativeTimeToLive) {
+
+    public static final CacheSettings DEFAULT = new CacheSettings(
+            10_000, 16L * 1024 * 1024, Duration.ofMinutes(5), Duration.ofSeconds(30));
+
+    public CacheSettings {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Cache limits must be positive!");
+        }
+        Objects.requireNonNull(timeToLive, "Time to live is required!");
+        Objects.requireNonNull(negativeTimeToLive, "Negative time to live is required!");
+    }
+
+    public boolean cachesMisses() {
+        return !negativeTimeToLive.isZero() && !negativeTimeToLive.isNegative();
+    }
+}
@@ -0,0 +1,9 @@
+package elastic.infra;
+
+public record CacheStats(long hits, long misses, long evictions, int entries, long bytes) {
+
+    public double hitRate() {
+        var requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
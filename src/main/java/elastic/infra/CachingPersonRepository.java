@@ -0,0 +1,303 @@
+package elastic.infra;
+
+import elastic.model.BulkLoad;
+import elastic.model.BirthYearBucket;
+import elastic.model.BulkResult;
+import elastic.model.CreditLimitStats;
+import elastic.model.Person;
+import elastic.model.PersonField;
+import elastic.model.PersonProjection;
+import elastic.model.PersonRepository;
+import elastic.model.RefreshPolicy;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+public class CachingPersonRepository implements PersonRepository {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private final PersonRepository delegate;
+    private final CacheSettings settings;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Token of the latest load per id; invalidating removes it, so a load that raced a write is not stored.
+    private final Map<String, Object> pendingLoads = new HashMap<>();
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingPersonRepository(PersonRepository delegate) {
+        this(delegate, CacheSettings.DEFAULT);
+    }
+
+    public CachingPersonRepository(PersonRepository delegate, CacheSettings settings) {
+        this(delegate, settings, Clock.systemUTC());
+    }
+
+    public CachingPersonRepository(PersonRepository delegate, CacheSettings settings, Clock clock) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.clock = clock;
+    }
+
+    @Override
+    public void save(Person person) {
+        delegate.save(person);
+        invalidate(person.id());
+    }
+
+    @Override
+    public void save(Person person, RefreshPolicy refreshPolicy) {
+        delegate.save(person, refreshPolicy);
+        invalidate(person.id());
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons) {
+        try {
+            return delegate.saveAll(persons);
+        } finally {
+            persons.forEach(person -> invalidate(person.id()));
+        }
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons, RefreshPolicy refreshPolicy) {
+        try {
+            return delegate.saveAll(persons, refreshPolicy);
+        } finally {
+            persons.forEach(person -> invalidate(person.id()));
+        }
+    }
+
+    @Override
+    public Optional<Person> get(String id) {
+        var cached = lookup(id);
+        if (cached != null) {
+            return cached.person();
+        }
+        var load = startLoad(id);
+        try {
+            var person = delegate.get(id);
+            store(id, person.orElse(null), load);
+            return person.map(CachingPersonRepository::copy);
+        } finally {
+            finishLoad(id, load);
+        }
+    }
+
+    @Override
+    public Map<String, Person> getMany(Collection<String> ids) {
+        var found = new HashMap<String, Person>();
+        var missingIds = new ArrayList<String>();
+        for (var id : ids) {
+            var cached = lookup(id);
+            if (cached == null) {
+                missingIds.add(id);
+            } else {
+                cached.person().ifPresent(person -> found.put(id, person));
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            var loads = new HashMap<String, Object>();
+            missingIds.forEach(id -> loads.put(id, startLoad(id)));
+            try {
+                var loaded = delegate.getMany(missingIds);
+                loads.forEach((id, load) -> store(id, loaded.get(id), load));
+                loaded.forEach((id, person) -> found.put(id, copy(person)));
+            } finally {
+                loads.forEach(this::finishLoad);
+            }
+        }
+        var persons = new LinkedHashMap<String, Person>();
+        for (var id : ids) {
+            var person = found.get(id);
+            if (person != null) {
+                persons.put(id, person);
+            }
+        }
+        return persons;
+    }
+
+    @Override
+    public List<Person> getAll(boolean onlyCustomers) {
+        return delegate.getAll(onlyCustomers);
+    }
+
+    @Override
+    public List<PersonProjection> getAll(boolean onlyCustomers, Set<PersonField> fields) {
+        return delegate.getAll(onlyCustomers, fields);
+    }
+
+    @Override
+    public Stream<Person> streamAll(boolean onlyCustomers) {
+        return delegate.streamAll(onlyCustomers);
+    }
+
+    @Override
+    public List<Person> queryByName(String name) {
+        return delegate.queryByName(name);
+    }
+
+    @Override
+    public List<PersonProjection> queryByName(String name, Set<PersonField> fields) {
+        return delegate.queryByName(name, fields);
+    }
+
+    @Override
+    public List<Person> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue) {
+        return delegate.queryByCreditLimit(minValue, maxValue);
+    }
+
+    @Override
+    public List<PersonProjection> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue,
+                                                     Set<PersonField> fields) {
+        return delegate.queryByCreditLimit(minValue, maxValue, fields);
+    }
+
+    @Override
+    public long count(boolean onlyCustomers) {
+        return delegate.count(onlyCustomers);
+    }
+
+    @Override
+    public CreditLimitStats creditLimitStats(boolean onlyCustomers) {
+        return delegate.creditLimitStats(onlyCustomers);
+    }
+
+    @Override
+    public List<BirthYearBucket> histogramByBirthYear(int fromYear, int toYear, boolean onlyCustomers) {
+        return delegate.histogramByBirthYear(fromYear, toYear, onlyCustomers);
+    }
+
+    @Override
+    public void refresh() {
+        delegate.refresh();
+    }
+
+    @Override
+    public BulkLoad beginBulkLoad(int maxNumSegments) {
+        return delegate.beginBulkLoad(maxNumSegments);
+    }
+
+    @Override
+    public void createIndex() {
+        delegate.createIndex();
+        invalidateAll();
+    }
+
+    @Override
+    public void deleteIndex() {
+        try {
+            delegate.deleteIndex();
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public long reindexFrom(String sourceIndex) {
+        try {
+            return delegate.reindexFrom(sourceIndex);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void close() {
+        invalidateAll();
+        delegate.close();
+    }
+
+    public synchronized void invalidate(String id) {
+        if (id != null) {
+            pendingLoads.remove(id);
+            var entry = entries.remove(id);
+            if (entry != null) {
+                bytes -= entry.bytes();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        pendingLoads.clear();
+        bytes = 0;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), bytes);
+    }
+
+    private synchronized Entry lookup(String id) {
+        var entry = entries.get(id);
+        if (entry != null && entry.expiresAt().isAfter(clock.instant())) {
+            hits.increment();
+            return entry;
+        }
+        if (entry != null) {
+            invalidate(id);
+        }
+        misses.increment();
+        return null;
+    }
+
+    private synchronized Object startLoad(String id) {
+        var load = new Object();
+        pendingLoads.put(id, load);
+        return load;
+    }
+
+    private synchronized void finishLoad(String id, Object load) {
+        pendingLoads.remove(id, load);
+    }
+
+    private synchronized void store(String id, Person person, Object load) {
+        if (pendingLoads.get(id) != load) {
+            return;
+        }
+        if (person == null && !settings.cachesMisses()) {
+            return;
+        }
+        var timeToLive = person == null ? settings.negativeTimeToLive() : settings.timeToLive();
+        var entry = new Entry(person == null ? null : copy(person), clock.instant().plus(timeToLive),
+                estimateBytes(id, person));
+        invalidate(id);
+        entries.put(id, entry);
+        bytes += entry.bytes();
+        evictOverflow();
+    }
+
+    private void evictOverflow() {
+        var iterator = entries.values().iterator();
+        while (iterator.hasNext() && (entries.size() > settings.maxEntries() || bytes > settings.maxBytes())) {
+            bytes -= iterator.next().bytes();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static long estimateBytes(String id, Person person) {
+        var chars = id.length() + (person == null ? 0 : person.name().length());
+        return ENTRY_OVERHEAD_BYTES + 2L * chars;
+    }
+
+    private static Person copy(Person person) {
+        return new Person(person.id(), person.name(), person.birthDate(), person.creditLimit(), person.isCustomer());
+    }
+
+    private record Entry(Person cachedPerson, Instant expiresAt, long bytes) {
+
+        Optional<Person> person() {
+            return Optional.ofNullable(cachedPerson).map(CachingPersonRepository::copy);
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package elastic.infra;
+
+/**
+ * Opt-in gzip of request bodies and responses; bodies smaller than {@code thresholdBytes} are sent as is.
+ */
+public record CompressionSettings(boolean enabled, int thresholdBytes) {
+
+    public static final CompressionSettings DISABLED = new CompressionSettings(false, 0);
+
+    public CompressionSettings {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("Compression threshold must not be negative!");
+        }
+    }
+
+    public static CompressionSettings gzip(int thresholdBytes) {
+        return new CompressionSettings(true, thresholdBytes);
+    }
+}
@@ -0,0 +1,13 @@
+package elastic.infra;
+
+public record CompressionStats(long requestBytes, long compressedRequestBytes,
+                               long responseBytes, long compressedResponseBytes) {
+
+    public double requestRatio() {
+        return requestBytes == 0 ? 1 : (double) compressedRequestBytes / requestBytes;
+    }
+
+    public double responseRatio() {
+        return responseBytes == 0 ? 1 : (double) compressedResponseBytes / responseBytes;
+    }
+}
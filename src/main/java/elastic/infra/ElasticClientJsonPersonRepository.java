@@ -1,32 +1,48 @@
 package elastic.infra;
 
 import co.elastic.clients.elasticsearch.core.IndexRequest;
+import co.elastic.clients.elasticsearch.core.MgetRequest;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import co.elastic.clients.util.BinaryData;
+import co.elastic.clients.util.ContentType;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import elastic.model.AsyncPersonRepository;
 import elastic.model.Person;
 import elastic.model.PersonRepository;
+import elastic.model.RefreshPolicy;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 public class ElasticClientJsonPersonRepository
         extends ElasticClientPersonRepositoryBase
-        implements PersonRepository {
+        implements PersonRepository, AsyncPersonRepository {
 
     private static final Logger LOGGER = Logger.getLogger(ElasticClientJsonPersonRepository.class.getName());
     private final Serializer serializer = new Serializer();
 
     public ElasticClientJsonPersonRepository(String indexName) {
-        super(indexName);
+        this(indexName, RepositoryOptions.defaults());
+    }
+
+    public ElasticClientJsonPersonRepository(String indexName, RepositoryOptions options) {
+        super(indexName, options);
     }
 
     @Override
     public void save(Person person) {
-        var indexRequest = buildIndexRequest(person);
+        save(person, options.refreshPolicy());
+    }
+
+    @Override
+    public void save(Person person, RefreshPolicy refreshPolicy) {
+        var indexRequest = buildIndexRequest(person, refreshPolicy);
         try {
             var response = esClient.index(indexRequest);
             person.initialize(response.id());
@@ -36,6 +52,13 @@ public class ElasticClientJsonPersonRepository
         }
     }
 
+    @Override
+    public CompletableFuture<Void> saveAsync(Person person) {
+        var future = esAsyncClient.index(buildIndexRequest(person, options.refreshPolicy()))
+                .thenAccept(response -> person.initialize(response.id()));
+        return logErrors(future, "Save");
+    }
+
     @Override
     public Optional<Person> get(String id) {
         var request = buildGetRequest(id);
@@ -51,6 +74,15 @@ public class ElasticClientJsonPersonRepository
         }
     }
 
+    @Override
+    public CompletableFuture<Optional<Person>> getAsync(String id) {
+        var future = esAsyncClient.get(buildGetRequest(id), ObjectNode.class)
+                .thenApply(response -> !response.found() || response.source() == null
+                        ? Optional.<Person>empty()
+                        : Optional.of(personFromNode(response.id(), response.source())));
+        return logErrors(future, "Get");
+    }
+
     @Override
     public List<Person> getAll(boolean onlyCustomers) {
         var request = buildGetAllRequest(onlyCustomers);
@@ -63,6 +95,13 @@ public class ElasticClientJsonPersonRepository
         }
     }
 
+    @Override
+    public CompletableFuture<List<Person>> getAllAsync(boolean onlyCustomers) {
+        var future = esAsyncClient.search(buildGetAllRequest(onlyCustomers), ObjectNode.class)
+                .thenApply(this::personsFromResponse);
+        return logErrors(future, "Get all");
+    }
+
     @Override
     public List<Person> queryByName(String name) {
         var request = buildQueryByNameRequest(name);
@@ -75,6 +114,13 @@ public class ElasticClientJsonPersonRepository
         }
     }
 
+    @Override
+    public CompletableFuture<List<Person>> queryByNameAsync(String name) {
+        var future = esAsyncClient.search(buildQueryByNameRequest(name), ObjectNode.class)
+                .thenApply(this::personsFromResponse);
+        return logErrors(future, "Query by name");
+    }
+
     @Override
     public List<Person> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue) {
         var request = buildQueryByCreditLimitRequest(minValue, maxValue);
@@ -87,11 +133,12 @@ public class ElasticClientJsonPersonRepository
         }
     }
 
-    private IndexRequest<String> buildIndexRequest(Person person) {
-        var personDocument = PersonDocument.of(person);
-        var jsonReader = new StringReader(serializer.toJson(personDocument));
-        var indexRequestBuilder = new IndexRequest.Builder<String>()
-                .index(indexName).withJson(jsonReader);
+    private IndexRequest<BinaryData> buildIndexRequest(Person person, RefreshPolicy refreshPolicy) {
+        var json = serializer.toJsonBytes(PersonDocument.of(person));
+        var indexRequestBuilder = new IndexRequest.Builder<BinaryData>()
+                .index(indexName)
+                .refresh(toRefresh(refreshPolicy))
+                .document(BinaryData.of(json, ContentType.APPLICATION_JSON));
         var id = person.id();
         if (id != null && !id.isBlank()) {
             indexRequestBuilder.id(id);
@@ -99,6 +146,37 @@ public class ElasticClientJsonPersonRepository
         return indexRequestBuilder.build();
     }
 
+    @Override
+    public CompletableFuture<List<Person>> queryByCreditLimitAsync(BigDecimal minValue, BigDecimal maxValue) {
+        var future = esAsyncClient.search(buildQueryByCreditLimitRequest(minValue, maxValue), ObjectNode.class)
+                .thenApply(this::personsFromResponse);
+        return logErrors(future, "Query by credit limit");
+    }
+
+    @Override
+    protected SearchPage searchPage(SearchRequest request) throws IOException {
+        var response = esClient.search(request, ObjectNode.class);
+        return SearchPage.of(personsFromResponse(response), response);
+    }
+
+    @Override
+    protected Map<String, Person> multiGet(MgetRequest request) throws IOException {
+        var response = esClient.mget(request, ObjectNode.class);
+        var persons = new LinkedHashMap<String, Person>();
+        response.docs().stream()
+                .filter(MultiGetResponseItem::isResult)
+                .map(MultiGetResponseItem::result)
+                .filter(result -> result.found() && result.source() != null)
+                .forEach(result -> persons.put(result.id(), personFromNode(result.id(), result.source())));
+        return persons;
+    }
+
+    @Override
+    protected BulkEntry bulkEntry(Person person) {
+        var json = serializer.toJsonBytes(PersonDocument.of(person));
+        return new BulkEntry(person, BinaryData.of(json, ContentType.APPLICATION_JSON), json.length);
+    }
+
     private List<Person> personsFromResponse(SearchResponse<ObjectNode> response) {
         return response.hits().hits().stream()
                 .filter(hit -> hit.source() != null)
@@ -107,7 +185,7 @@ public class ElasticClientJsonPersonRepository
     }
 
     private Person personFromNode(String id, ObjectNode node) {
-        var personDocument = serializer.fromJson(node.toString(), PersonDocument.class);
+        var personDocument = serializer.fromTree(node, PersonDocument.class);
         return personDocument.toPerson(id);
     }
 
@@ -1,30 +1,50 @@
 package elastic.infra;
 
 import co.elastic.clients.elasticsearch.core.IndexRequest;
+import co.elastic.clients.elasticsearch.core.MgetRequest;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import co.elastic.clients.util.BinaryData;
+import co.elastic.clients.util.ContentType;
+import elastic.model.AsyncPersonRepository;
 import elastic.model.Person;
 import elastic.model.PersonRepository;
+import elastic.model.RefreshPolicy;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 public class ElasticClientPersonRepository
         extends ElasticClientPersonRepositoryBase
-        implements PersonRepository {
+        implements PersonRepository, AsyncPersonRepository {
 
     private static final Logger LOGGER = Logger.getLogger(ElasticClientPersonRepository.class.getName());
+    private final Serializer serializer = new Serializer();
 
     public ElasticClientPersonRepository(String indexName) {
-        super(indexName);
+        this(indexName, RepositoryOptions.defaults());
+    }
+
+    public ElasticClientPersonRepository(String indexName, RepositoryOptions options) {
+        super(indexName, options);
     }
 
     @Override
     public void save(Person person) {
-        var indexRequest = buildIndexRequest(person);
+        save(person, options.refreshPolicy());
+    }
+
+    @Override
+    public void save(Person person, RefreshPolicy refreshPolicy) {
+        var indexRequest = buildIndexRequest(person, refreshPolicy);
         try {
             var response = esClient.index(indexRequest);
             person.initialize(response.id());
@@ -34,6 +54,13 @@ public class ElasticClientPersonRepository
         }
     }
 
+    @Override
+    public CompletableFuture<Void> saveAsync(Person person) {
+        var future = esAsyncClient.index(buildIndexRequest(person, options.refreshPolicy()))
+                .thenAccept(response -> person.initialize(response.id()));
+        return logErrors(future, "Save");
+    }
+
     @Override
     public Optional<Person> get(String id) {
         var request = buildGetRequest(id);
@@ -49,6 +76,13 @@ public class ElasticClientPersonRepository
         }
     }
 
+    @Override
+    public CompletableFuture<Optional<Person>> getAsync(String id) {
+        var future = esAsyncClient.get(buildGetRequest(id), PersonDocument.class)
+                .thenApply(response -> Optional.ofNullable(response.source()).map(source -> source.toPerson(id)));
+        return logErrors(future, "Get");
+    }
+
     @Override
     public List<Person> getAll(boolean onlyCustomers) {
         var request = buildGetAllRequest(onlyCustomers);
@@ -61,6 +95,13 @@ public class ElasticClientPersonRepository
         }
     }
 
+    @Override
+    public CompletableFuture<List<Person>> getAllAsync(boolean onlyCustomers) {
+        var future = esAsyncClient.search(buildGetAllRequest(onlyCustomers), PersonDocument.class)
+                .thenApply(ElasticClientPersonRepository::personsFromResponse);
+        return logErrors(future, "Get all");
+    }
+
     @Override
     public List<Person> queryByName(String name) {
         var request = buildQueryByNameRequest(name);
@@ -73,6 +114,13 @@ public class ElasticClientPersonRepository
         }
     }
 
+    @Override
+    public CompletableFuture<List<Person>> queryByNameAsync(String name) {
+        var future = esAsyncClient.search(buildQueryByNameRequest(name), PersonDocument.class)
+                .thenApply(ElasticClientPersonRepository::personsFromResponse);
+        return logErrors(future, "Query by name");
+    }
+
     @Override
     public List<Person> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue) {
         var request = buildQueryByCreditLimitRequest(minValue, maxValue);
@@ -85,10 +133,11 @@ public class ElasticClientPersonRepository
         }
     }
 
-    private IndexRequest<PersonDocument> buildIndexRequest(Person person) {
+    private IndexRequest<PersonDocument> buildIndexRequest(Person person, RefreshPolicy refreshPolicy) {
         var personDocument = PersonDocument.of(person);
         var indexRequestBuilder = new IndexRequest.Builder<PersonDocument>()
                 .index(indexName)
+                .refresh(toRefresh(refreshPolicy))
                 .document(personDocument);
         var id = person.id();
         if (id != null && !id.isBlank()) {
@@ -97,6 +146,37 @@ public class ElasticClientPersonRepository
         return indexRequestBuilder.build();
     }
 
+    @Override
+    public CompletableFuture<List<Person>> queryByCreditLimitAsync(BigDecimal minValue, BigDecimal maxValue) {
+        var future = esAsyncClient.search(buildQueryByCreditLimitRequest(minValue, maxValue), PersonDocument.class)
+                .thenApply(ElasticClientPersonRepository::personsFromResponse);
+        return logErrors(future, "Query by credit limit");
+    }
+
+    @Override
+    protected SearchPage searchPage(SearchRequest request) throws IOException {
+        var response = esClient.search(request, PersonDocument.class);
+        return SearchPage.of(personsFromResponse(response), response);
+    }
+
+    @Override
+    protected Map<String, Person> multiGet(MgetRequest request) throws IOException {
+        var response = esClient.mget(request, PersonDocument.class);
+        var persons = new LinkedHashMap<String, Person>();
+        response.docs().stream()
+                .filter(MultiGetResponseItem::isResult)
+                .map(MultiGetResponseItem::result)
+                .filter(result -> result.found() && result.source() != null)
+                .forEach(result -> persons.put(result.id(), result.source().toPerson(result.id())));
+        return persons;
+    }
+
+    @Override
+    protected BulkEntry bulkEntry(Person person) {
+        var json = serializer.toJsonBytes(PersonDocument.of(person));
+        return new BulkEntry(person, BinaryData.of(json, ContentType.APPLICATION_JSON), json.length);
+    }
+
     private static List<Person> personsFromResponse(SearchResponse<PersonDocument> response) {
         return response.hits().hits().stream()
                 .filter(hit -> hit.source() != null)
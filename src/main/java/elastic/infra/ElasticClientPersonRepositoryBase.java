@@ -1,47 +1,432 @@
 package elastic.infra;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.SlicedScroll;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.aggregations.StatsAggregate;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.RangeQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.GetRequest;
+import co.elastic.clients.elasticsearch.core.MgetRequest;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.search.TrackHits;
 import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
 import co.elastic.clients.json.JsonData;
+import co.elastic.clients.util.BinaryData;
+import elastic.model.BulkLoad;
+import elastic.model.BirthYearBucket;
+import elastic.model.BulkResult;
+import elastic.model.CreditLimitStats;
+import elastic.model.MoneyConverter;
+import elastic.model.Person;
+import elastic.model.PersonField;
+import elastic.model.PersonProjection;
+import elastic.model.RefreshPolicy;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
-public abstract class ElasticClientPersonRepositoryBase {
+public abstract class ElasticClientPersonRepositoryBase implements AutoCloseable {
 
     private final Logger logger;
     protected final String indexName;
-    protected final ElasticsearchClient esClient = ElasticFactory.buildElasticClient();
+    protected final RepositoryOptions options;
+    private final HttpCompression compression;
+    protected final ElasticsearchClient esClient;
+    protected final ElasticsearchAsyncClient esAsyncClient;
 
-    protected ElasticClientPersonRepositoryBase(String indexName) {
+    protected ElasticClientPersonRepositoryBase(String indexName, RepositoryOptions options) {
         this.logger = Logger.getLogger(getClass().getName());
         this.indexName = indexName;
+        this.options = options;
+        this.compression = new HttpCompression(options.compression());
+        this.esClient = ElasticFactory.buildElasticClient(
+                new JfrInstrumentation(getClass().getSimpleName()), compression, options.nodes());
+        this.esAsyncClient = new ElasticsearchAsyncClient(esClient._transport());
+    }
+
+    public CompressionStats compressionStats() {
+        return compression.stats();
+    }
+
+    protected abstract BulkEntry bulkEntry(Person person);
+
+    protected abstract SearchPage searchPage(SearchRequest request) throws IOException;
+
+    protected abstract Map<String, Person> multiGet(MgetRequest request) throws IOException;
+
+    public Map<String, Person> getMany(Collection<String> ids) {
+        var persons = new LinkedHashMap<String, Person>();
+        var distinctIds = ids.stream().distinct().toList();
+        for (var chunk : BulkBatches.partition(distinctIds, options.multiGetChunkSize())) {
+            try {
+                persons.putAll(multiGet(buildMultiGetRequest(chunk)));
+            } catch (IOException e) {
+                logger.severe("Get many error: " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        }
+        return persons;
+    }
+
+    public BulkResult saveAll(Collection<Person> persons) {
+        return saveAll(persons, options.refreshPolicy());
+    }
+
+    public BulkResult saveAll(Collection<Person> persons, RefreshPolicy refreshPolicy) {
+        var entries = persons.stream().map(this::bulkEntry).toList();
+        var items = new ArrayList<BulkResult.Item>(entries.size());
+        for (var batch : BulkBatches.partition(entries, BulkEntry::size, options.bulkLimits())) {
+            try {
+                var response = esClient.bulk(buildBulkRequest(batch, refreshPolicy));
+                items.addAll(bulkItems(batch, response));
+            } catch (IOException e) {
+                logger.severe("Save all error: " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new BulkResult(items);
+    }
+
+    public List<PersonProjection> getAll(boolean onlyCustomers, Set<PersonField> fields) {
+        return projections(buildGetAllRequest(onlyCustomers, fields), "Get all");
+    }
+
+    public List<PersonProjection> queryByName(String name, Set<PersonField> fields) {
+        return projections(buildQueryByNameRequest(name, fields), "Query by name");
+    }
+
+    public List<PersonProjection> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue,
+                                                     Set<PersonField> fields) {
+        return projections(buildQueryByCreditLimitRequest(minValue, maxValue, fields), "Query by credit limit");
+    }
+
+    private List<PersonProjection> projections(SearchRequest request, String operation) {
+        try {
+            var response = esClient.search(request, PersonDocument.class);
+            return response.hits().hits().stream()
+                    .map(hit -> PersonDocument.projection(hit.id(), hit.source()))
+                    .toList();
+        } catch (IOException e) {
+            logger.severe(operation + " error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long count(boolean onlyCustomers) {
+        var request = statisticsRequestBuilder(onlyCustomers)
+                .trackTotalHits(t -> t.enabled(true))
+                .build();
+        try {
+            return esClient.search(request, Void.class).hits().total().value();
+        } catch (IOException e) {
+            logger.severe("Count error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public CreditLimitStats creditLimitStats(boolean onlyCustomers) {
+        var request = statisticsRequestBuilder(onlyCustomers)
+                .aggregations(PersonAggregations.CREDIT_LIMIT, a -> a.stats(s -> s.field("creditLimitCents")))
+                .build();
+        try {
+            var response = esClient.search(request, Void.class);
+            return creditLimitStats(response.aggregations().get(PersonAggregations.CREDIT_LIMIT).stats());
+        } catch (IOException e) {
+            logger.severe("Credit limit stats error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public List<BirthYearBucket> histogramByBirthYear(int fromYear, int toYear, boolean onlyCustomers) {
+        var ranges = PersonAggregations.yearRanges(fromYear, toYear).stream()
+                .map(range -> AggregationRange.of(r -> r
+                        .key(range.key())
+                        .from(String.valueOf(range.fromDay()))
+                        .to(String.valueOf(range.toDay()))))
+                .toList();
+        var request = statisticsRequestBuilder(onlyCustomers)
+                .aggregations(PersonAggregations.BIRTH_YEARS, a -> a
+                        .range(r -> r.field("birthDate").ranges(ranges))
+                        .aggregations(PersonAggregations.CREDIT_LIMIT, s -> s.stats(st -> st.field("creditLimitCents"))))
+                .build();
+        try {
+            var response = esClient.search(request, Void.class);
+            return response.aggregations().get(PersonAggregations.BIRTH_YEARS).range().buckets().array().stream()
+                    .map(bucket -> new BirthYearBucket(Integer.parseInt(bucket.key()), bucket.docCount(),
+                            creditLimitStats(bucket.aggregations().get(PersonAggregations.CREDIT_LIMIT).stats())))
+                    .toList();
+        } catch (IOException e) {
+            logger.severe("Histogram by birth year error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SearchRequest.Builder statisticsRequestBuilder(boolean onlyCustomers) {
+        var builder = new SearchRequest.Builder()
+                .index(indexName)
+                .size(0)
+                .trackTotalHits(t -> t.enabled(false));
+        if (onlyCustomers) {
+            builder.query(onlyCustomersQuery());
+        }
+        return builder;
+    }
+
+    private static CreditLimitStats creditLimitStats(StatsAggregate stats) {
+        return CreditLimitStats.ofCents(stats.count(), stats.min(), stats.max(), stats.avg(), stats.sum());
+    }
+
+    public Stream<Person> streamAll(boolean onlyCustomers) {
+        var iterator = new SearchAfterIterator<>(
+                PitCursor.<FieldValue>start(openPointInTime()), options.pageSize(),
+                cursor -> fetchGetAllPage(onlyCustomers, cursor));
+        return iterator.stream().onClose(() -> closePointInTime(iterator.cursor().pitId()));
+    }
+
+    protected <T> CompletableFuture<T> logErrors(CompletableFuture<T> future, String operation) {
+        return future.whenComplete((result, e) -> {
+            if (e != null) {
+                logger.severe(operation + " error: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Scans the index in {@code slices} parallel slices of one point in time, each on its own thread of a
+     * pool created for this scan. See {@link #scanSliced(boolean, int, Executor, Consumer)}.
+     */
+    public ScanStats scanSliced(boolean onlyCustomers, int slices, Consumer<List<Person>> batchConsumer) {
+        var executor = Executors.newFixedThreadPool(slices);
+        try {
+            return scanSliced(onlyCustomers, slices, executor, batchConsumer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Scans the index in {@code slices} parallel slices of one point in time, running each slice on the
+     * executor. The consumer is called concurrently from the slice threads and must be thread-safe;
+     * a slice only fetches its next page once the consumer returns, so a slow consumer throttles the scan.
+     * The first failing slice stops the others and its exception is rethrown, including a
+     * {@link java.util.concurrent.RejectedExecutionException} of an executor that cannot take every slice.
+     */
+    public ScanStats scanSliced(boolean onlyCustomers, int slices, Executor executor,
+                                Consumer<List<Person>> batchConsumer) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("Slices must be positive!");
+        }
+        var start = System.nanoTime();
+        var documents = new LongAdder();
+        var batches = new LongAdder();
+        var failed = new AtomicBoolean();
+        var pitId = openPointInTime();
+        var scans = new ArrayList<CompletableFuture<Void>>(slices);
+        try {
+            for (int slice = 0; slice < slices; slice++) {
+                var sliceScroll = sliceOf(slice, slices);
+                scans.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        scanSlice(onlyCustomers, pitId, sliceScroll, failed,
+                                batch -> {
+                                    batchConsumer.accept(batch);
+                                    documents.add(batch.size());
+                                    batches.increment();
+                                });
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(scans.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (RejectedExecutionException e) {
+            logger.severe("Sliced scan error: " + e.getMessage());
+            failed.set(true);
+            // Slices already running still use the point in time.
+            CompletableFuture.allOf(scans.toArray(CompletableFuture[]::new)).handle((result, error) -> null).join();
+            throw e;
+        } finally {
+            closePointInTime(pitId);
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new ScanStats(documents.sum(), batches.sum(), slices, elapsed);
+    }
+
+    private void scanSlice(boolean onlyCustomers, String pitId, SlicedScroll slice,
+                           AtomicBoolean failed, Consumer<List<Person>> batchConsumer) {
+        var cursor = PitCursor.<FieldValue>start(pitId);
+        while (!failed.get()) {
+            SearchPage page;
+            try {
+                page = searchPage(buildGetAllRequest(onlyCustomers, cursor, slice));
+            } catch (IOException e) {
+                logger.severe("Sliced scan error: " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+            if (!page.persons().isEmpty()) {
+                batchConsumer.accept(page.persons());
+            }
+            if (page.hits() < options.pageSize()) {
+                return;
+            }
+            cursor = page.nextCursor(cursor);
+        }
+    }
+
+    private static SlicedScroll sliceOf(int slice, int slices) {
+        return slices == 1 ? null : SlicedScroll.of(s -> s.id(String.valueOf(slice)).max(slices));
+    }
+
+    private SearchAfterIterator.Page<PitCursor<FieldValue>> fetchGetAllPage(
+            boolean onlyCustomers, PitCursor<FieldValue> cursor) {
+        try {
+            var page = searchPage(buildGetAllRequest(onlyCustomers, cursor));
+            return new SearchAfterIterator.Page<>(page.persons(), page.hits(), page.nextCursor(cursor));
+        } catch (IOException e) {
+            logger.severe("Stream all error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String openPointInTime() {
+        try {
+            return esClient.openPointInTime(o -> o
+                    .index(indexName)
+                    .keepAlive(pointInTimeKeepAlive())
+            ).id();
+        } catch (IOException e) {
+            logger.severe("Open point in time error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closePointInTime(String pitId) {
+        try {
+            esClient.closePointInTime(c -> c.id(pitId));
+        } catch (IOException e) {
+            logger.severe("Close point in time error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Time pointInTimeKeepAlive() {
+        return Time.of(t -> t.time(options.pointInTimeKeepAliveParam()));
     }
 
     protected GetRequest buildGetRequest(String id) {
         return new GetRequest.Builder().index(indexName).id(id).build();
     }
 
+    protected MgetRequest buildMultiGetRequest(List<String> ids) {
+        return new MgetRequest.Builder().index(indexName).ids(ids).build();
+    }
+
     protected SearchRequest buildGetAllRequest(boolean onlyCustomers) {
-        var builder = new SearchRequest.Builder();
-        builder.index(indexName);
+        return getAllRequestBuilder(onlyCustomers).build();
+    }
+
+    protected SearchRequest buildGetAllRequest(boolean onlyCustomers, Set<PersonField> fields) {
+        return withSourceFilter(getAllRequestBuilder(onlyCustomers), fields).build();
+    }
+
+    private SearchRequest.Builder getAllRequestBuilder(boolean onlyCustomers) {
+        var builder = filterRequestBuilder();
         if (onlyCustomers) {
-            builder.query(q -> q
-                    .term(TermQuery.of(t -> t
-                            .field("customer").value(true))
-                    )
-            );
+            builder.query(onlyCustomersQuery());
+        }
+        return builder;
+    }
+
+    protected SearchRequest buildGetAllRequest(boolean onlyCustomers, PitCursor<FieldValue> cursor) {
+        return buildGetAllRequest(onlyCustomers, cursor, null);
+    }
+
+    protected SearchRequest buildGetAllRequest(boolean onlyCustomers, PitCursor<FieldValue> cursor,
+                                               SlicedScroll slice) {
+        var builder = new SearchRequest.Builder()
+                .pit(p -> p.id(cursor.pitId()).keepAlive(pointInTimeKeepAlive()))
+                .size(options.pageSize())
+                .sort(s -> s.field(f -> f.field("_shard_doc")));
+        if (!cursor.searchAfter().isEmpty()) {
+            builder.searchAfter(cursor.searchAfter());
+        }
+        if (slice != null) {
+            builder.slice(slice);
+        }
+        if (onlyCustomers) {
+            builder.query(onlyCustomersQuery());
         }
         return builder.build();
     }
 
+    private static Query onlyCustomersQuery() {
+        return filter(TermQuery.of(t -> t
+                .field("customer").value(true)
+        )._toQuery());
+    }
+
+    private static Query filter(Query query) {
+        return Query.of(q -> q.bool(b -> b.filter(query)));
+    }
+
+    private SearchRequest.Builder filterRequestBuilder() {
+        return new SearchRequest.Builder()
+                .index(indexName)
+                .trackScores(false)
+                .trackTotalHits(trackTotalHits());
+    }
+
+    private TrackHits trackTotalHits() {
+        var upTo = options.trackTotalHitsUpTo();
+        return upTo == 0 ? TrackHits.of(t -> t.enabled(false)) : TrackHits.of(t -> t.count(upTo));
+    }
+
     protected SearchRequest buildQueryByNameRequest(String name) {
+        return queryByNameRequestBuilder(name).build();
+    }
+
+    protected SearchRequest buildQueryByNameRequest(String name, Set<PersonField> fields) {
+        return withSourceFilter(queryByNameRequestBuilder(name), fields).build();
+    }
+
+    private SearchRequest.Builder queryByNameRequestBuilder(String name) {
         return new SearchRequest.Builder()
                 .index(indexName)
                 .query(q -> q
@@ -50,25 +435,99 @@ public abstract class ElasticClientPersonRepositoryBase {
                                 .query(name)
                                 .fuzziness("2")
                         )
-                )
-                .build();
+                );
     }
 
     protected SearchRequest buildQueryByCreditLimitRequest(BigDecimal min, BigDecimal max) {
+        return queryByCreditLimitRequestBuilder(min, max).build();
+    }
+
+    protected SearchRequest buildQueryByCreditLimitRequest(BigDecimal min, BigDecimal max, Set<PersonField> fields) {
+        return withSourceFilter(queryByCreditLimitRequestBuilder(min, max), fields).build();
+    }
+
+    private SearchRequest.Builder queryByCreditLimitRequestBuilder(BigDecimal min, BigDecimal max) {
         var rangeQuery = RangeQuery.of(q -> q
-                .field("creditLimit")
-                .gte(JsonData.of(min))
-                .lte(JsonData.of(max))
+                .field("creditLimitCents")
+                .gte(JsonData.of(MoneyConverter.toCents(min, RoundingMode.CEILING)))
+                .lte(JsonData.of(MoneyConverter.toCents(max, RoundingMode.FLOOR)))
         )._toQuery();
-        return new SearchRequest.Builder()
+        return filterRequestBuilder()
+                .query(filter(rangeQuery));
+    }
+
+    private static SearchRequest.Builder withSourceFilter(SearchRequest.Builder builder, Set<PersonField> fields) {
+        if (fields.isEmpty()) {
+            return builder.source(s -> s.fetch(false));
+        }
+        var includes = fields.stream().map(PersonDocument::fieldName).toList();
+        return builder.source(s -> s.filter(f -> f.includes(includes)));
+    }
+
+    private BulkRequest buildBulkRequest(List<BulkEntry> entries, RefreshPolicy refreshPolicy) {
+        var operations = entries.stream()
+                .map(this::buildBulkOperation)
+                .toList();
+        return new BulkRequest.Builder()
                 .index(indexName)
-                .query(rangeQuery)
+                .refresh(toRefresh(refreshPolicy))
+                .operations(operations)
                 .build();
     }
 
+    private BulkOperation buildBulkOperation(BulkEntry entry) {
+        var id = entry.person().id();
+        return BulkOperation.of(b -> b.index(i -> {
+            i.document(entry.document());
+            if (id != null && !id.isBlank()) {
+                i.id(id);
+            }
+            return i;
+        }));
+    }
+
+    private static List<BulkResult.Item> bulkItems(List<BulkEntry> entries, BulkResponse response) {
+        var items = new ArrayList<BulkResult.Item>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            var person = entries.get(i).person();
+            var responseItem = response.items().get(i);
+            if (responseItem.error() != null) {
+                items.add(BulkResult.Item.failure(person, responseItem.status(), responseItem.error().reason()));
+            } else {
+                person.initialize(responseItem.id());
+                items.add(BulkResult.Item.success(person, responseItem.id(), responseItem.status()));
+            }
+        }
+        return items;
+    }
+
+    protected static Refresh toRefresh(RefreshPolicy refreshPolicy) {
+        return switch (refreshPolicy) {
+            case NONE -> Refresh.False;
+            case WAIT_FOR -> Refresh.WaitFor;
+            case IMMEDIATE -> Refresh.True;
+        };
+    }
+
+    public void refresh() {
+        try {
+            esClient.indices().refresh(r -> r.index(indexName));
+        } catch (IOException e) {
+            logger.severe("Refresh error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public BulkLoad beginBulkLoad(int maxNumSegments) {
+        return IndexBulkLoad.begin(new ClientIndexAdmin(), maxNumSegments, options.indexSettings());
+    }
+
     public void createIndex() {
         try {
-            esClient.indices().create(c -> c.index(indexName));
+            var definition = PersonIndexDefinition.json(options.indexSettings());
+            esClient.indices().create(c -> c
+                    .index(indexName)
+                    .withJson(new ByteArrayInputStream(definition)));
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -85,4 +544,115 @@ public abstract class ElasticClientPersonRepositoryBase {
         }
     }
 
+    public long reindexFrom(String sourceIndex) {
+        try {
+            if (!esClient.indices().exists(e -> e.index(indexName)).value()) {
+                createIndex();
+            }
+            var task = esClient.reindex(r -> r
+                    .source(s -> s.index(sourceIndex))
+                    .dest(d -> d.index(indexName))
+                    .script(s -> s.inline(i -> i
+                            .lang("painless")
+                            .source(PersonIndexDefinition.CREDIT_LIMIT_CENTS_MIGRATION)))
+                    .refresh(true)
+                    .waitForCompletion(false)).task();
+            var total = TaskPoller.await(() -> reindexedDocuments(task));
+            logger.info("Reindexed " + total + " documents from " + sourceIndex + " into " + indexName);
+            return total;
+        } catch (IOException e) {
+            logger.severe("Reindex error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<Long> reindexedDocuments(String task) {
+        try {
+            var status = esClient.tasks().get(g -> g.taskId(task));
+            if (!status.completed()) {
+                return Optional.empty();
+            }
+            if (status.error() != null) {
+                throw new IllegalStateException("Reindex task failed: " + status.error().reason());
+            }
+            var total = status.response().toJson().asJsonObject().getJsonNumber("total");
+            return Optional.of(total == null ? 0 : total.longValue());
+        } catch (IOException e) {
+            logger.severe("Reindex task error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            esClient._transport().close();
+        } catch (IOException e) {
+            logger.severe("Close error: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected record BulkEntry(Person person, BinaryData document, long size) {
+    }
+
+    protected record SearchPage(List<Person> persons, int hits, String pitId, List<FieldValue> lastSort) {
+
+        public static SearchPage of(List<Person> persons, SearchResponse<?> response) {
+            var hits = response.hits().hits();
+            var lastSort = hits.isEmpty() ? List.<FieldValue>of() : hits.get(hits.size() - 1).sort();
+            return new SearchPage(persons, hits.size(), response.pitId(), lastSort);
+        }
+
+        public PitCursor<FieldValue> nextCursor(PitCursor<FieldValue> cursor) {
+            return new PitCursor<>(
+                    pitId != null ? pitId : cursor.pitId(),
+                    lastSort.isEmpty() ? cursor.searchAfter() : lastSort);
+        }
+    }
+
+    private class ClientIndexAdmin implements IndexBulkLoad.IndexAdmin {
+
+        @Override
+        public IndexBulkLoad.DynamicSettings currentSettings() {
+            try {
+                var settings = esClient.indices().getSettings(g -> g.index(indexName)).get(indexName).settings();
+                var index = settings.index() != null ? settings.index() : settings;
+                var refreshInterval = index.refreshInterval() != null ? index.refreshInterval().time() : null;
+                return new IndexBulkLoad.DynamicSettings(refreshInterval, index.numberOfReplicas());
+            } catch (IOException e) {
+                logger.severe("Get settings error: " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void updateSettings(IndexBulkLoad.DynamicSettings settings) {
+            try {
+                esClient.indices().putSettings(p -> p
+                        .index(indexName)
+                        .settings(s -> s
+                                .refreshInterval(t -> t.time(settings.refreshInterval()))
+                                .numberOfReplicas(settings.numberOfReplicas())));
+            } catch (IOException e) {
+                logger.severe("Update settings error: " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void refresh() {
+            ElasticClientPersonRepositoryBase.this.refresh();
+        }
+
+        @Override
+        public void forceMerge(int maxNumSegments) {
+            try {
+                esClient.indices().forcemerge(f -> f.index(indexName).maxNumSegments((long) maxNumSegments));
+            } catch (IOException e) {
+                logger.severe("Force merge error: " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
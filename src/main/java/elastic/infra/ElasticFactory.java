@@ -2,7 +2,8 @@ package elastic.infra;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
-import co.elastic.clients.transport.rest_client.RestClientTransport;
+import co.elastic.clients.transport.instrumentation.Instrumentation;
+import co.elastic.clients.transport.instrumentation.NoopInstrumentation;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
@@ -10,12 +11,17 @@ import org.apache.http.client.CredentialsProvider;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.elasticsearch.client.RestClient;
 
+import java.util.Objects;
 import java.util.logging.Logger;
 
 public class ElasticFactory {
     private static final Logger LOGGER = Logger.getLogger(ElasticFactory.class.getName());
 
-    public static final String SERVER_URL = "http://localhost:9200";
+    /**
+     * One URL or several comma-separated ones; see {@link NodeSettings#DEFAULT}.
+     */
+    public static final String SERVER_URL = System.getProperty("elastic.url",
+            Objects.requireNonNullElse(System.getenv("ES_URL"), "http://localhost:9200"));
     public static final String USERNAME = System.getenv("ES_USERNAME");
     public static final String PASSWORD = System.getenv("ES_PASSWORD");
 
@@ -24,15 +30,42 @@ public class ElasticFactory {
     }
 
     public static ElasticsearchClient buildElasticClient() {
-        LOGGER.info("Connecting to " + SERVER_URL);
+        return buildElasticClient(NoopInstrumentation.INSTANCE);
+    }
+
+    public static ElasticsearchClient buildElasticClient(Instrumentation instrumentation) {
+        return buildElasticClient(instrumentation, new HttpCompression(CompressionSettings.DISABLED));
+    }
+
+    public static ElasticsearchClient buildElasticClient(Instrumentation instrumentation,
+                                                         HttpCompression compression) {
+        return buildElasticClient(instrumentation, compression, NodeSettings.DEFAULT);
+    }
+
+    public static ElasticsearchClient buildElasticClient(Instrumentation instrumentation,
+                                                         HttpCompression compression, NodeSettings nodes) {
+        LOGGER.info("Connecting to " + nodes.hosts());
+        var httpClient = new NodePoolHttpClient(NodePool.acquire(nodes), ElasticFactory::buildRestClient);
+        var mapper = new JacksonJsonpMapper();
+        var transport = compression.enabled()
+                ? new GzipTransport(httpClient, mapper, compression, instrumentation)
+                : new NodePoolTransport(httpClient, mapper, instrumentation);
+        return new ElasticsearchClient(transport);
+    }
+
+    private static RestClient buildRestClient(HttpHost host) {
         final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-        credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(USERNAME, PASSWORD));
-        var restClient = RestClient.builder(HttpHost.create(SERVER_URL))
+        setCredentials(credentialsProvider);
+        return RestClient.builder(host)
                 .setHttpClientConfigCallback(httpClientBuilder ->
                         httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider))
                 .build();
-        var transport = new RestClientTransport(restClient, new JacksonJsonpMapper());
-        return new ElasticsearchClient(transport);
+    }
+
+    static void setCredentials(CredentialsProvider credentialsProvider) {
+        if (USERNAME != null) {
+            credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(USERNAME, PASSWORD));
+        }
     }
 
 }
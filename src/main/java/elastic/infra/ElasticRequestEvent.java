@@ -0,0 +1,111 @@
+package elastic.infra;
+
+import jdk.jfr.*;
+
+/**
+ * One Elasticsearch round trip as seen by a repository. Network time covers
+ * everything between the request leaving the client and the response headers
+ * arriving, so it includes the server-reported {@code took}.
+ */
+@Name("elastic.Request")
+@Label("Elasticsearch Request")
+@Category({"Elasticsearch", "Person Repository"})
+@StackTrace(false)
+public class ElasticRequestEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Serialize")
+    @Timespan
+    long serializeTime;
+
+    @Label("Network")
+    @Timespan
+    long networkTime;
+
+    @Label("Server Took")
+    @Timespan(Timespan.MILLISECONDS)
+    long serverTook;
+
+    @Label("Deserialize")
+    @Timespan
+    long deserializeTime;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Hits")
+    int hits;
+
+    private transient boolean started;
+    private transient long phaseStart;
+
+    public static ElasticRequestEvent start(String repository, String operation) {
+        var event = new ElasticRequestEvent();
+        if (event.isEnabled()) {
+            event.repository = repository;
+            event.operation = operation;
+            event.serverTook = -1;
+            event.requestBytes = -1;
+            event.responseBytes = -1;
+            event.started = true;
+            event.begin();
+            event.phaseStart = System.nanoTime();
+        }
+        return event;
+    }
+
+    public void serialized(long requestBytes) {
+        if (started) {
+            this.serializeTime = lap();
+            this.requestBytes = requestBytes;
+        }
+    }
+
+    public void responseReceived(int statusCode, long responseBytes) {
+        if (started) {
+            this.networkTime = lap();
+            this.statusCode = statusCode;
+            this.responseBytes = responseBytes;
+        }
+    }
+
+    public void result(int hits, Long took) {
+        if (started) {
+            this.hits = hits;
+            this.serverTook = took != null ? took : -1;
+        }
+    }
+
+    public void finish() {
+        if (started) {
+            started = false;
+            if (statusCode != 0) {
+                deserializeTime = lap();
+            }
+            end();
+            if (shouldCommit()) {
+                commit();
+            }
+        }
+    }
+
+    private long lap() {
+        var now = System.nanoTime();
+        var elapsed = now - phaseStart;
+        phaseStart = now;
+        return elapsed;
+    }
+}
@@ -0,0 +1,85 @@
+package elastic.infra;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransportBase;
+import co.elastic.clients.transport.TransportOptions;
+import co.elastic.clients.transport.http.TransportHttpClient;
+import co.elastic.clients.transport.instrumentation.Instrumentation;
+import co.elastic.clients.transport.rest_client.RestClientOptions;
+import org.elasticsearch.client.RequestOptions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Java client transport over the low-level REST client that gzips request bodies through
+ * {@link HttpCompression}. The REST client hands the body to the async HTTP client before any
+ * interceptor runs, so compression has to happen at this layer.
+ */
+class GzipTransport extends ElasticsearchTransportBase {
+
+    GzipTransport(TransportHttpClient httpClient, JsonpMapper mapper, HttpCompression compression,
+                  Instrumentation instrumentation) {
+        super(new CompressingHttpClient(httpClient, compression),
+                new RestClientOptions(RequestOptions.DEFAULT.toBuilder()
+                        .setHttpAsyncResponseConsumerFactory(compression.responseConsumerFactory())
+                        .build()),
+                mapper, instrumentation);
+    }
+
+    private record CompressingHttpClient(TransportHttpClient delegate, HttpCompression compression)
+            implements TransportHttpClient {
+
+        @Override
+        public TransportOptions createOptions(TransportOptions options) {
+            return delegate.createOptions(options);
+        }
+
+        @Override
+        public Response performRequest(String endpointId, Node node, Request request,
+                                       TransportOptions options) throws IOException {
+            return delegate.performRequest(endpointId, node, compress(request), options);
+        }
+
+        @Override
+        public CompletableFuture<Response> performRequestAsync(String endpointId, Node node, Request request,
+                                                               TransportOptions options) {
+            return delegate.performRequestAsync(endpointId, node, compress(request), options);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        private Request compress(Request request) {
+            var headers = new HashMap<>(request.headers());
+            headers.put("Accept-Encoding", "gzip");
+            var body = request.body();
+            if (body != null) {
+                var raw = bytes(body);
+                var encoded = compression.encode(raw);
+                if (encoded != raw) {
+                    headers.put("Content-Encoding", "gzip");
+                }
+                body = List.of(ByteBuffer.wrap(encoded));
+            }
+            return new Request(request.method(), request.path(), request.queryParams(), headers, body);
+        }
+
+        private static byte[] bytes(Iterable<ByteBuffer> body) {
+            var out = new ByteArrayOutputStream();
+            for (var buffer : body) {
+                var copy = buffer.duplicate();
+                var chunk = new byte[copy.remaining()];
+                copy.get(chunk);
+                out.writeBytes(chunk);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -1,120 +1,556 @@
 package elastic.infra;
 
+import elastic.model.AsyncPersonRepository;
+import elastic.model.BatchPersonRepository;
+import elastic.model.BulkLoad;
+import elastic.model.BirthYearBucket;
+import elastic.model.BulkResult;
+import elastic.model.CreditLimitStats;
+import elastic.model.MoneyConverter;
 import elastic.model.Person;
+import elastic.model.PersonBatch;
+import elastic.model.PersonField;
+import elastic.model.PersonProjection;
 import elastic.model.PersonRepository;
+import elastic.model.RefreshPolicy;
+import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpResponse;
-import org.apache.http.auth.AuthScope;
-import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.methods.*;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.entity.ByteArrayEntity;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.net.URLEncoder;
+import java.math.RoundingMode;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
 
-public class HttpClientJsonPersonRepository implements PersonRepository {
+public class HttpClientJsonPersonRepository
+        implements PersonRepository, AsyncPersonRepository, BatchPersonRepository {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpClientJsonPersonRepository.class.getName());
+    private static final String REPOSITORY = HttpClientJsonPersonRepository.class.getSimpleName();
 
     private final Serializer serializer = new Serializer();
+    private final SearchResponseReader searchResponseReader = new SearchResponseReader(serializer);
     private final String indexName;
+    private final RepositoryOptions options;
+    private final WireFormat wireFormat;
+    private final HttpTransport transport;
+    private final boolean ownsTransport;
 
     public HttpClientJsonPersonRepository(String indexName) {
+        this(indexName, RepositoryOptions.defaults());
+    }
+
+    public HttpClientJsonPersonRepository(String indexName, RepositoryOptions options) {
+        this(indexName, options, new HttpTransport(HttpPoolSettings.DEFAULT, options.compression(), options.nodes()), true);
+    }
+
+    public HttpClientJsonPersonRepository(String indexName, RepositoryOptions options, HttpTransport transport) {
+        this(indexName, options, transport, false);
+    }
+
+    private HttpClientJsonPersonRepository(String indexName, RepositoryOptions options,
+                                           HttpTransport transport, boolean ownsTransport) {
         this.indexName = indexName;
+        this.options = options;
+        this.wireFormat = options.wireFormat();
+        this.transport = transport;
+        this.ownsTransport = ownsTransport;
     }
 
     @Override
     public void save(Person person) {
-        var request = configRequest(new HttpPost(uri(indexName, "_doc", person.id())));
-        try {
-            var personDocument = PersonDocument.of(person);
-            request.setEntity(new StringEntity(serializer.toJson(personDocument)));
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+        save(person, options.refreshPolicy());
+    }
+
+    @Override
+    public void save(Person person, RefreshPolicy refreshPolicy) {
+        var response = executeRequest("save", () -> buildSaveRequest(person, refreshPolicy),
+                json(IndexResponse.class));
+        person.initialize(response._id);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(Person person) {
+        return executeAsync("save", () -> buildSaveRequest(person, options.refreshPolicy()), json(IndexResponse.class))
+                .thenAccept(response -> person.initialize(response._id));
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons) {
+        return saveAll(persons, options.refreshPolicy());
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons, RefreshPolicy refreshPolicy) {
+        var entries = persons.stream().map(this::bulkEntry).toList();
+        var items = new ArrayList<BulkResult.Item>(entries.size());
+        for (var batch : BulkBatches.partition(entries, BulkEntry::size, options.bulkLimits())) {
+            var response = executeRequest("saveAll", () -> {
+                var request = configRequest(new HttpPost(uri(indexName, "_bulk") + refreshParam(refreshPolicy)));
+                request.setHeader("Content-Type", wireFormat.bulkFormat().mediaType());
+                request.setEntity(new ByteArrayEntity(bulkBody(batch)));
+                return request;
+            }, json(BulkResponse.class));
+            items.addAll(bulkItems(batch, response));
         }
-        person.initialize(documentId(executeRequest(request)));
+        return new BulkResult(items);
     }
 
     @Override
     public Optional<Person> get(String id) {
-        var request = configRequest(new HttpGet(uri(indexName, "_doc", id)));
-        var result = executeRequest(request);
-        return Optional.of(source(result).toPerson(id));
+        var response = executeRequest("get", () -> buildGetRequest(id), json(PersonResponse.class), true);
+        return response.toPerson(id);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Person>> getAsync(String id) {
+        return executeAsync("get", () -> buildGetRequest(id), json(PersonResponse.class), true)
+                .thenApply(response -> response.toPerson(id));
+    }
+
+    @Override
+    public Map<String, Person> getMany(Collection<String> ids) {
+        var persons = new LinkedHashMap<String, Person>();
+        var distinctIds = ids.stream().distinct().toList();
+        for (var chunk : BulkBatches.partition(distinctIds, options.multiGetChunkSize())) {
+            var response = executeRequest("getMany", () -> {
+                var request = configRequest(new HttpPost(uri(indexName, "_mget")));
+                request.setEntity(entity(Map.of("ids", chunk)));
+                return request;
+            }, json(MultiGetResponse.class));
+            response.docs.stream()
+                    .filter(doc -> doc.found && doc._source != null)
+                    .forEach(doc -> persons.put(doc._id, doc._source.toPerson(doc._id)));
+        }
+        return persons;
     }
 
     @Override
     public List<Person> getAll(boolean onlyCustomers) {
-        var queryParams = onlyCustomers ? "?q=customer:true" : null;
-        var request = configRequest(new HttpGet(uri(indexName, "_search", queryParams)));
-        return sources(executeRequest(request));
+        return sources("getAll", () -> buildSearchRequest(getAllBody(onlyCustomers)));
+    }
+
+    @Override
+    public List<PersonProjection> getAll(boolean onlyCustomers, Set<PersonField> fields) {
+        return projections("getAll", () -> buildSearchRequest(withSourceFilter(getAllBody(onlyCustomers), fields)));
+    }
+
+    @Override
+    public CompletableFuture<List<Person>> getAllAsync(boolean onlyCustomers) {
+        return sourcesAsync("getAll", () -> buildSearchRequest(getAllBody(onlyCustomers)));
+    }
+
+    @Override
+    public Stream<Person> streamAll(boolean onlyCustomers) {
+        var iterator = new SearchAfterIterator<>(
+                PitCursor.start(openPointInTime()), options.pageSize(),
+                cursor -> fetchGetAllPage(onlyCustomers, cursor));
+        return iterator.stream().onClose(() -> closePointInTime(iterator.cursor().pitId()));
+    }
+
+    @Override
+    public long scanAll(boolean onlyCustomers, PersonBatch batch, Consumer<PersonBatch> pageConsumer) {
+        var cursor = PitCursor.start(openPointInTime());
+        var persons = 0L;
+        try {
+            while (true) {
+                var current = cursor;
+                batch.clear();
+                var summary = executeRequest("scanAll", () -> buildGetAllPageRequest(onlyCustomers, current),
+                        (content, format) -> searchResponseReader.readBatch(content, format, batch));
+                if (!batch.isEmpty()) {
+                    pageConsumer.accept(batch);
+                    persons += batch.size();
+                }
+                cursor = nextCursor(current, summary);
+                if (summary.hits() < options.pageSize()) {
+                    return persons;
+                }
+            }
+        } finally {
+            closePointInTime(cursor.pitId());
+        }
     }
 
     @Override
     public List<Person> queryByName(String name) {
-        var queryParams = "?q=name:" + urlEncode(name);
-        var request = configRequest(new HttpGet(uri(indexName, "_search", queryParams)));
-        return sources(executeRequest(request));
+        return sources("queryByName", () -> buildSearchRequest(queryByNameBody(name)));
+    }
+
+    @Override
+    public List<PersonProjection> queryByName(String name, Set<PersonField> fields) {
+        return projections("queryByName", () -> buildSearchRequest(withSourceFilter(queryByNameBody(name), fields)));
+    }
+
+    @Override
+    public CompletableFuture<List<Person>> queryByNameAsync(String name) {
+        return sourcesAsync("queryByName", () -> buildSearchRequest(queryByNameBody(name)));
     }
 
     @Override
     public List<Person> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue) {
-        var queryParam = "_search?q=creditLimit:[" + minValue + "+TO+" + maxValue + "]";
-        var request = configRequest(new HttpGet(uri(indexName, queryParam)));
-        return sources(executeRequest(request));
+        return sources("queryByCreditLimit",
+                () -> buildSearchRequest(queryByCreditLimitBody(minValue, maxValue)));
+    }
+
+    @Override
+    public List<PersonProjection> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue,
+                                                     Set<PersonField> fields) {
+        return projections("queryByCreditLimit",
+                () -> buildSearchRequest(withSourceFilter(queryByCreditLimitBody(minValue, maxValue), fields)));
+    }
+
+    @Override
+    public CompletableFuture<List<Person>> queryByCreditLimitAsync(BigDecimal minValue, BigDecimal maxValue) {
+        return sourcesAsync("queryByCreditLimit",
+                () -> buildSearchRequest(queryByCreditLimitBody(minValue, maxValue)));
+    }
+
+    @Override
+    public long count(boolean onlyCustomers) {
+        var body = statisticsBody(onlyCustomers);
+        body.put("track_total_hits", true);
+        return statistics("count", body).hits.total.value;
+    }
+
+    @Override
+    public CreditLimitStats creditLimitStats(boolean onlyCustomers) {
+        var body = statisticsBody(onlyCustomers);
+        body.put("aggs", Map.of(PersonAggregations.CREDIT_LIMIT, creditLimitStatsAggregation()));
+        return statistics("creditLimitStats", body).aggregations.credit_limit.toCreditLimitStats();
+    }
+
+    @Override
+    public List<BirthYearBucket> histogramByBirthYear(int fromYear, int toYear, boolean onlyCustomers) {
+        var ranges = PersonAggregations.yearRanges(fromYear, toYear).stream()
+                .map(range -> Map.of("key", range.key(), "from", range.fromDay(), "to", range.toDay()))
+                .toList();
+        var body = statisticsBody(onlyCustomers);
+        body.put("aggs", Map.of(PersonAggregations.BIRTH_YEARS, Map.of(
+                "range", Map.of("field", "birthDate", "ranges", ranges),
+                "aggs", Map.of(PersonAggregations.CREDIT_LIMIT, creditLimitStatsAggregation()))));
+        return statistics("histogramByBirthYear", body).aggregations.birth_years.buckets.stream()
+                .map(bucket -> new BirthYearBucket(Integer.parseInt(bucket.key), bucket.doc_count,
+                        bucket.credit_limit.toCreditLimitStats()))
+                .toList();
+    }
+
+    @Override
+    public void refresh() {
+        executeRequest("refresh", () -> configRequest(new HttpPost(uri(indexName, "_refresh"))));
+    }
+
+    @Override
+    public BulkLoad beginBulkLoad(int maxNumSegments) {
+        return IndexBulkLoad.begin(new HttpIndexAdmin(), maxNumSegments, options.indexSettings());
     }
 
     @Override
     public void createIndex() {
-        executeRequest(configRequest(new HttpPut(uri(indexName))));
+        executeRequest("createIndex", () -> {
+            var request = configRequest(new HttpPut(uri(indexName)));
+            request.setHeader("Content-Type", WireFormat.JSON.mediaType());
+            request.setEntity(new ByteArrayEntity(PersonIndexDefinition.json(options.indexSettings())));
+            return request;
+        });
     }
 
     @Override
     public void deleteIndex() {
-        executeRequest(configRequest(new HttpDelete(uri(indexName))));
+        executeRequest("deleteIndex", () -> configRequest(new HttpDelete(uri(indexName))));
+    }
+
+    @Override
+    public long reindexFrom(String sourceIndex) {
+        if (!indexExists()) {
+            createIndex();
+        }
+        var body = Map.of(
+                "source", Map.of("index", sourceIndex),
+                "dest", Map.of("index", indexName),
+                "script", Map.of("lang", "painless", "source", PersonIndexDefinition.CREDIT_LIMIT_CENTS_MIGRATION));
+        var task = executeRequest("reindexFrom", () -> {
+            var request = configRequest(new HttpPost(uri("_reindex?refresh=true&wait_for_completion=false")));
+            request.setEntity(entity(body));
+            return request;
+        }, json(TaskStartedResponse.class)).task;
+        return TaskPoller.await(() -> {
+            var status = executeRequest("reindexTask", () -> configRequest(new HttpGet(uri("_tasks", task))),
+                    json(ReindexTaskResponse.class));
+            if (!status.completed) {
+                return Optional.empty();
+            }
+            if (status.error != null) {
+                throw new RuntimeException("Reindex task failed: " + status.error.reason);
+            }
+            return Optional.of(status.response.total);
+        });
+    }
+
+    private boolean indexExists() {
+        try {
+            return transport.execute(configRequest(new HttpHead(uri(indexName))),
+                    response -> response.getStatusLine().getStatusCode() == 200);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
-    private static <T extends HttpUriRequest> T configRequest(T request) {
-        request.setHeader("Content-Type", "application/json");
+    public CompressionStats compressionStats() {
+        return transport.compressionStats();
+    }
+
+    @Override
+    public void close() {
+        if (ownsTransport) {
+            transport.close();
+        }
+    }
+
+    private HttpPost buildSaveRequest(Person person, RefreshPolicy refreshPolicy) {
+        var uri = uri(indexName, "_doc", person.id()) + refreshParam(refreshPolicy);
+        var request = configRequest(new HttpPost(uri));
+        request.setEntity(entity(PersonDocument.of(person)));
+        return request;
+    }
+
+    private HttpGet buildGetRequest(String id) {
+        return configRequest(new HttpGet(uri(indexName, "_doc", id)));
+    }
+
+    private HttpPost buildSearchRequest(Map<String, Object> body) {
+        var request = configRequest(new HttpPost(uri(indexName, "_search")));
+        request.setEntity(entity(body));
         return request;
     }
 
+    private Map<String, Object> getAllBody(boolean onlyCustomers) {
+        var body = filterBody();
+        if (onlyCustomers) {
+            body.put("query", onlyCustomersQuery());
+        }
+        return body;
+    }
 
-    private String uri(String... path) {
-        var sb = new StringBuilder(ElasticFactory.SERVER_URL);
+    private static Map<String, Object> queryByNameBody(String name) {
+        var body = new LinkedHashMap<String, Object>();
+        body.put("query", Map.of("match", Map.of("name", name)));
+        return body;
+    }
+
+    private Map<String, Object> queryByCreditLimitBody(BigDecimal minValue, BigDecimal maxValue) {
+        var body = filterBody();
+        var range = Map.of(
+                "gte", MoneyConverter.toCents(minValue, RoundingMode.CEILING),
+                "lte", MoneyConverter.toCents(maxValue, RoundingMode.FLOOR));
+        body.put("query", filter(Map.of("range", Map.of("creditLimitCents", range))));
+        return body;
+    }
+
+    private Map<String, Object> filterBody() {
+        var body = new LinkedHashMap<String, Object>();
+        var upTo = options.trackTotalHitsUpTo();
+        body.put("track_scores", false);
+        body.put("track_total_hits", upTo == 0 ? false : upTo);
+        return body;
+    }
+
+    private static Map<String, Object> onlyCustomersQuery() {
+        return filter(Map.of("term", Map.of("customer", true)));
+    }
+
+    private static Map<String, Object> filter(Map<String, Object> clause) {
+        return Map.of("bool", Map.of("filter", List.of(clause)));
+    }
+
+    private static Map<String, Object> withSourceFilter(Map<String, Object> body, Set<PersonField> fields) {
+        body.put("_source", fields.isEmpty() ? false : Map.of("includes", fields.stream()
+                .map(PersonDocument::fieldName)
+                .toList()));
+        return body;
+    }
+
+    private static Map<String, Object> statisticsBody(boolean onlyCustomers) {
+        var body = new LinkedHashMap<String, Object>();
+        body.put("size", 0);
+        body.put("track_total_hits", false);
+        if (onlyCustomers) {
+            body.put("query", onlyCustomersQuery());
+        }
+        return body;
+    }
+
+    private static Map<String, Object> creditLimitStatsAggregation() {
+        return Map.of("stats", Map.of("field", "creditLimitCents"));
+    }
+
+    private StatisticsResponse statistics(String operation, Map<String, Object> body) {
+        return executeRequest(operation, () -> buildSearchRequest(body), json(StatisticsResponse.class));
+    }
+
+    private SearchAfterIterator.Page<PitCursor<Object>> fetchGetAllPage(
+            boolean onlyCustomers, PitCursor<Object> cursor) {
+        var persons = new ArrayList<Person>(options.pageSize());
+        var summary = executeRequest("streamAll", () -> buildGetAllPageRequest(onlyCustomers, cursor),
+                (content, format) -> searchResponseReader.read(content, format, persons::add));
+        return new SearchAfterIterator.Page<>(persons, summary.hits(), nextCursor(cursor, summary));
+    }
+
+    private static PitCursor<Object> nextCursor(PitCursor<Object> cursor, SearchResponseReader.Summary summary) {
+        var lastSort = summary.lastSort().isEmpty() ? cursor.searchAfter() : summary.lastSort();
+        var pitId = summary.pitId() != null ? summary.pitId() : cursor.pitId();
+        return new PitCursor<>(pitId, lastSort);
+    }
+
+    private HttpPost buildGetAllPageRequest(boolean onlyCustomers, PitCursor<Object> cursor) {
+        var body = new LinkedHashMap<String, Object>();
+        body.put("size", options.pageSize());
+        if (onlyCustomers) {
+            body.put("query", onlyCustomersQuery());
+        }
+        body.put("pit", Map.of("id", cursor.pitId(), "keep_alive", options.pointInTimeKeepAliveParam()));
+        body.put("sort", List.of(Map.of("_shard_doc", "asc")));
+        if (!cursor.searchAfter().isEmpty()) {
+            body.put("search_after", cursor.searchAfter());
+        }
+        var request = configRequest(new HttpPost(uri("_search")));
+        request.setEntity(entity(body));
+        return request;
+    }
+
+    private String openPointInTime() {
+        var queryParams = "_pit?keep_alive=" + options.pointInTimeKeepAliveParam();
+        return executeRequest("openPointInTime", () -> configRequest(new HttpPost(uri(indexName, queryParams))),
+                json(PointInTimeResponse.class)).id;
+    }
+
+    private void closePointInTime(String pitId) {
+        executeRequest("closePointInTime", () -> {
+            var request = configRequest(new HttpDeleteWithBody(uri("_pit")));
+            request.setEntity(entity(Map.of("id", pitId)));
+            return request;
+        });
+    }
+
+    private ByteArrayEntity entity(Object body) {
+        return new ByteArrayEntity(serializer.toBytes(body, wireFormat));
+    }
+
+    private <T extends HttpUriRequest> T configRequest(T request) {
+        request.setHeader("Content-Type", wireFormat.mediaType());
+        request.setHeader("Accept", wireFormat.mediaType());
+        return request;
+    }
+
+
+    // Only the path: HttpTransport picks the node.
+    private static String uri(String... path) {
+        var sb = new StringBuilder();
         Arrays.stream(path)
                 .filter(s -> s != null && !s.isEmpty())
                 .forEach(s -> sb.append('/').append(s));
-        return sb.toString();
+        return sb.isEmpty() ? "/" : sb.toString();
     }
 
-    private String executeRequest(HttpUriRequest request) {
-        var credentialsProvider = new BasicCredentialsProvider();
-        credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(
-                ElasticFactory.USERNAME, ElasticFactory.PASSWORD));
-
-        try (var client = HttpClients.custom()
-                .setDefaultCredentialsProvider(credentialsProvider)
-                .build()) {
+    private String executeRequest(String operation, Supplier<HttpUriRequest> requestBuilder) {
+        return executeRequest(operation, requestBuilder, (content, format) -> contentAsString(content));
+    }
 
-            var response = client.execute(request);
-            checkStatusCode(response);
-            var entity = response.getEntity();
-            return new String(entity.getContent().readAllBytes());
+    private <T> T executeRequest(String operation, Supplier<? extends HttpUriRequest> requestBuilder,
+                                 ContentHandler<T> handler) {
+        return executeRequest(operation, requestBuilder, handler, false);
+    }
 
+    // With notFoundAllowed a 404 is handed to the handler, like the found:false answer of a document get.
+    private <T> T executeRequest(String operation, Supplier<? extends HttpUriRequest> requestBuilder,
+                                 ContentHandler<T> handler, boolean notFoundAllowed) {
+        var event = ElasticRequestEvent.start(REPOSITORY, operation);
+        try {
+            var request = requestBuilder.get();
+            event.serialized(contentLength(request));
+            return transport.execute(request, response -> handleResponse(event, response, handler, notFoundAllowed));
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            event.finish();
         }
+    }
 
+    private <T> CompletableFuture<T> executeAsync(String operation, Supplier<? extends HttpUriRequest> requestBuilder,
+                                                  ContentHandler<T> handler) {
+        return executeAsync(operation, requestBuilder, handler, false);
     }
 
-    private void checkStatusCode(HttpResponse response) throws IOException {
+    private <T> CompletableFuture<T> executeAsync(String operation, Supplier<? extends HttpUriRequest> requestBuilder,
+                                                  ContentHandler<T> handler, boolean notFoundAllowed) {
+        var event = ElasticRequestEvent.start(REPOSITORY, operation);
+        var request = requestBuilder.get();
+        event.serialized(contentLength(request));
+        return transport.executeAsync(request).thenApply(response -> {
+            try {
+                return handleResponse(event, response, handler, notFoundAllowed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((result, e) -> {
+            event.finish();
+            if (e != null) {
+                LOGGER.severe(operation + " error: " + e.getMessage());
+            }
+        });
+    }
+
+    private <T> T handleResponse(ElasticRequestEvent event, HttpResponse response,
+                                 ContentHandler<T> handler, boolean notFoundAllowed) throws IOException {
+        var status = response.getStatusLine().getStatusCode();
+        event.responseReceived(status, response.getEntity().getContentLength());
+        var format = responseFormat(response);
+        if (!notFoundAllowed || status != 404) {
+            checkStatusCode(response, format);
+        }
+        try (var content = response.getEntity().getContent()) {
+            var result = handler.handle(content, format);
+            if (result instanceof SearchResponseReader.Summary summary) {
+                event.result(summary.hits(), summary.took());
+            } else if (result instanceof BulkResponse bulk) {
+                event.result(bulk.items.size(), bulk.took);
+            }
+            return result;
+        }
+    }
+
+    private static long contentLength(HttpUriRequest request) {
+        if (request instanceof HttpEntityEnclosingRequest enclosing && enclosing.getEntity() != null) {
+            return enclosing.getEntity().getContentLength();
+        }
+        return 0;
+    }
+
+    private <T> ContentHandler<T> json(Class<T> type) {
+        return (content, format) -> serializer.fromBytes(content, format, type);
+    }
+
+    private static WireFormat responseFormat(HttpResponse response) {
+        var contentType = response.getEntity().getContentType();
+        return WireFormat.fromContentType(contentType != null ? contentType.getValue() : null);
+    }
+
+    private void checkStatusCode(HttpResponse response, WireFormat format) throws IOException {
         var status = response.getStatusLine().getStatusCode();
         if (status < 200 || status > 299) {
             var message = "Request error! Status code: " + status;
-            var reason = errorReason(response);
+            var reason = errorReason(response, format);
             if (reason.isPresent()) {
                 message += "\nReason: " + reason.get();
             }
@@ -122,55 +558,180 @@ public class HttpClientJsonPersonRepository implements PersonRepository {
         }
     }
 
-    private Optional<String> errorReason(HttpResponse response) throws IOException {
-        var json = contentAsString(response);
-        var errorResponse = serializer.fromJson(json, ErrorResponse.class);
+    private Optional<String> errorReason(HttpResponse response, WireFormat format) throws IOException {
+        var errorResponse = serializer.fromBytes(response.getEntity().getContent(), format, ErrorResponse.class);
         if (errorResponse.error == null) {
             return Optional.empty();
         }
         return Optional.ofNullable(errorResponse.error.reason);
     }
 
-    private String contentAsString(HttpResponse response) throws IOException {
-        return new String(response.getEntity().getContent().readAllBytes());
+    private String contentAsString(InputStream content) throws IOException {
+        return new String(content.readAllBytes(), StandardCharsets.UTF_8);
     }
 
-    private String documentId(String json) {
-        return serializer.fromJson(json, IndexResponse.class)._id;
+    private BulkEntry bulkEntry(Person person) {
+        var id = person.id();
+        var action = id == null || id.isBlank() ? Map.of() : Map.of("_id", id);
+        var format = wireFormat.bulkFormat().format();
+        return new BulkEntry(person,
+                serializer.toBytes(Map.of("index", action), format),
+                serializer.toBytes(PersonDocument.of(person), format));
     }
 
-    private PersonDocument source(String json) {
-        return serializer.fromJson(json, PersonResponse.class)._source;
+    private byte[] bulkBody(List<BulkEntry> entries) {
+        var separator = wireFormat.bulkFormat().separator();
+        var body = new ByteArrayOutputStream();
+        for (var entry : entries) {
+            body.writeBytes(entry.action());
+            body.write(separator);
+            body.writeBytes(entry.source());
+            body.write(separator);
+        }
+        return body.toByteArray();
     }
 
-    private List<Person> sources(String json) {
-        var searchResponse = serializer.fromJson(json, SearchResponse.class);
-        return searchResponse.hits.hits.stream()
-                .map(hit -> hit._source.toPerson(hit._id))
-                .toList();
+    private List<BulkResult.Item> bulkItems(List<BulkEntry> entries, BulkResponse response) {
+        var items = new ArrayList<BulkResult.Item>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            var person = entries.get(i).person();
+            var responseItem = response.items.get(i).index;
+            if (responseItem.error != null) {
+                items.add(BulkResult.Item.failure(person, responseItem.status, responseItem.error.reason));
+            } else {
+                person.initialize(responseItem._id);
+                items.add(BulkResult.Item.success(person, responseItem._id, responseItem.status));
+            }
+        }
+        return items;
+    }
+
+    private List<Person> sources(String operation, Supplier<HttpUriRequest> requestBuilder) {
+        var persons = new ArrayList<Person>();
+        executeRequest(operation, requestBuilder,
+                (content, format) -> searchResponseReader.read(content, format, persons::add));
+        return persons;
+    }
+
+    private List<PersonProjection> projections(String operation, Supplier<HttpUriRequest> requestBuilder) {
+        var projections = new ArrayList<PersonProjection>();
+        executeRequest(operation, requestBuilder, (content, format) -> searchResponseReader.readDocuments(content,
+                format, (id, source) -> projections.add(PersonDocument.projection(id, source))));
+        return projections;
+    }
+
+    private CompletableFuture<List<Person>> sourcesAsync(String operation, Supplier<HttpUriRequest> requestBuilder) {
+        var persons = new ArrayList<Person>();
+        return executeAsync(operation, requestBuilder,
+                (content, format) -> searchResponseReader.read(content, format, persons::add))
+                .thenApply(summary -> persons);
     }
 
-    private static String urlEncode(String s) {
-        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    private static String refreshParam(RefreshPolicy refreshPolicy) {
+        return switch (refreshPolicy) {
+            case NONE -> "";
+            case WAIT_FOR -> "?refresh=wait_for";
+            case IMMEDIATE -> "?refresh=true";
+        };
     }
 
     public static class IndexResponse {
         public String _id;
     }
 
+    public static class BulkResponse {
+        public Long took;
+        public List<Item> items;
+
+        public static class Item {
+            public Result index;
+
+            public static class Result {
+                public String _id;
+                public int status;
+                public ErrorResponse.ErrorDetail error;
+            }
+        }
+    }
+
     public static class PersonResponse {
+        public boolean found;
         public PersonDocument _source;
+        public ErrorResponse.ErrorDetail error;
+
+        // A missing document answers found:false; a missing index answers with an error.
+        Optional<Person> toPerson(String id) {
+            if (error != null) {
+                throw new RuntimeException("Request error! Status code: 404\nReason: " + error.reason);
+            }
+            return found && _source != null ? Optional.of(_source.toPerson(id)) : Optional.empty();
+        }
+    }
+
+    public static class MultiGetResponse {
+        public List<Doc> docs;
+
+        public static class Doc {
+            public String _id;
+            public boolean found;
+            public PersonDocument _source;
+        }
+    }
+
+    public static class PointInTimeResponse {
+        public String id;
+    }
+
+    public static class TaskStartedResponse {
+        public String task;
+    }
+
+    public static class ReindexTaskResponse {
+        public boolean completed;
+        public ReindexResponse response;
+        public ErrorResponse.ErrorDetail error;
     }
 
-    public static class SearchResponse {
+    public static class ReindexResponse {
+        public long total;
+    }
+
+    public static class StatisticsResponse {
         public Hits hits;
+        public Aggregations aggregations;
 
         public static class Hits {
-            public List<Hit> hits;
+            public Total total;
+        }
 
-            public static class Hit {
-                public String _id;
-                public PersonDocument _source;
+        public static class Total {
+            public long value;
+        }
+
+        public static class Aggregations {
+            public Stats credit_limit;
+            public Range birth_years;
+        }
+
+        public static class Range {
+            public List<RangeBucket> buckets;
+        }
+
+        public static class RangeBucket {
+            public String key;
+            public long doc_count;
+            public Stats credit_limit;
+        }
+
+        public static class Stats {
+            public long count;
+            public Double min;
+            public Double max;
+            public Double avg;
+            public Double sum;
+
+            CreditLimitStats toCreditLimitStats() {
+                return count == 0 ? CreditLimitStats.EMPTY : CreditLimitStats.ofCents(count, min, max, avg, sum);
             }
         }
     }
@@ -183,4 +744,62 @@ public class HttpClientJsonPersonRepository implements PersonRepository {
         }
     }
 
+    private record BulkEntry(Person person, byte[] action, byte[] source) {
+        long size() {
+            return action.length + source.length + 2L;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ContentHandler<T> {
+        T handle(InputStream content, WireFormat format) throws IOException;
+    }
+
+    private class HttpIndexAdmin implements IndexBulkLoad.IndexAdmin {
+
+        @Override
+        public IndexBulkLoad.DynamicSettings currentSettings() {
+            var uri = uri(indexName, "_settings?flat_settings=true");
+            var response = executeRequest("getSettings", () -> configRequest(new HttpGet(uri)), json(Map.class));
+            var settings = (Map<?, ?>) ((Map<?, ?>) response.get(indexName)).get("settings");
+            return new IndexBulkLoad.DynamicSettings(
+                    (String) settings.get("index.refresh_interval"),
+                    (String) settings.get("index.number_of_replicas"));
+        }
+
+        @Override
+        public void updateSettings(IndexBulkLoad.DynamicSettings settings) {
+            executeRequest("updateSettings", () -> {
+                var request = configRequest(new HttpPut(uri(indexName, "_settings")));
+                request.setEntity(entity(Map.of("index", Map.of(
+                        "refresh_interval", settings.refreshInterval(),
+                        "number_of_replicas", settings.numberOfReplicas()))));
+                return request;
+            });
+        }
+
+        @Override
+        public void refresh() {
+            HttpClientJsonPersonRepository.this.refresh();
+        }
+
+        @Override
+        public void forceMerge(int maxNumSegments) {
+            var uri = uri(indexName, "_forcemerge?max_num_segments=" + maxNumSegments);
+            executeRequest("forceMerge", () -> configRequest(new HttpPost(uri)));
+        }
+    }
+
+    private static class HttpDeleteWithBody extends HttpEntityEnclosingRequestBase {
+
+        HttpDeleteWithBody(String uri) {
+            setURI(URI.create(uri));
+        }
+
+        @Override
+        public String getMethod() {
+            return HttpDelete.METHOD_NAME;
+        }
+    }
+
 }
@@ -0,0 +1,204 @@
+package elastic.infra;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.HeapBufferedAsyncResponseConsumer;
+import org.elasticsearch.client.HttpAsyncResponseConsumerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip for the Apache clients behind both repository families. Request bodies are compressed above the
+ * threshold before they are handed to a client, since the async clients capture the entity up front;
+ * responses are decompressed once buffered. Raw and on-the-wire bytes are counted in both directions.
+ */
+public class HttpCompression {
+
+    private static final String GZIP = "gzip";
+    private static final int RESPONSE_BUFFER_LIMIT = 100 * 1024 * 1024;
+
+    private final CompressionSettings settings;
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder compressedRequestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder compressedResponseBytes = new LongAdder();
+
+    public HttpCompression(CompressionSettings settings) {
+        this.settings = settings;
+    }
+
+    public boolean enabled() {
+        return settings.enabled();
+    }
+
+    public CompressionStats stats() {
+        return new CompressionStats(requestBytes.sum(), compressedRequestBytes.sum(),
+                responseBytes.sum(), compressedResponseBytes.sum());
+    }
+
+    /**
+     * Returns the body to send: gzipped when it reaches the threshold, otherwise the same array.
+     */
+    public byte[] encode(byte[] body) {
+        requestBytes.add(body.length);
+        var encoded = body.length < settings.thresholdBytes() ? body : gzip(body);
+        compressedRequestBytes.add(encoded.length);
+        return encoded;
+    }
+
+    public void compress(HttpUriRequest request) throws IOException {
+        request.setHeader("Accept-Encoding", GZIP);
+        if (request instanceof HttpEntityEnclosingRequest enclosing
+                && enclosing.getEntity() != null
+                && !request.containsHeader("Content-Encoding")) {
+            var entity = enclosing.getEntity();
+            var raw = EntityUtils.toByteArray(entity);
+            var body = encode(raw);
+            var compressed = new ByteArrayEntity(body);
+            compressed.setContentType(entity.getContentType());
+            if (body != raw) {
+                compressed.setContentEncoding(GZIP);
+                request.setHeader("Content-Encoding", GZIP);
+            }
+            enclosing.setEntity(compressed);
+        }
+    }
+
+    public HttpResponse decompress(HttpResponse response) {
+        var entity = response.getEntity();
+        if (entity != null) {
+            var encoding = entity.getContentEncoding();
+            var gzip = encoding != null && GZIP.equalsIgnoreCase(encoding.getValue());
+            response.setEntity(new CountingEntity(entity, gzip));
+            if (gzip) {
+                response.removeHeaders("Content-Encoding");
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Response consumer for the low-level REST client, which buffers the body after any interceptor ran.
+     */
+    public HttpAsyncResponseConsumerFactory responseConsumerFactory() {
+        return () -> new HeapBufferedAsyncResponseConsumer(RESPONSE_BUFFER_LIMIT) {
+            @Override
+            protected HttpResponse buildResult(HttpContext context) throws Exception {
+                return decompress(super.buildResult(context));
+            }
+        };
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        var out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private class CountingEntity extends HttpEntityWrapper {
+
+        private final boolean gzip;
+        private InputStream content;
+
+        CountingEntity(HttpEntity entity, boolean gzip) {
+            super(entity);
+            this.gzip = gzip;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            if (!wrappedEntity.isStreaming()) {
+                return openContent();
+            }
+            if (content == null) {
+                content = openContent();
+            }
+            return content;
+        }
+
+        private InputStream openContent() throws IOException {
+            if (!gzip) {
+                return new CountingInputStream(wrappedEntity.getContent(), responseBytes, compressedResponseBytes);
+            }
+            var compressed = new CountingInputStream(wrappedEntity.getContent(), compressedResponseBytes);
+            return new CountingInputStream(new GZIPInputStream(compressed), responseBytes);
+        }
+
+        @Override
+        public long getContentLength() {
+            return gzip ? -1 : wrappedEntity.getContentLength();
+        }
+
+        @Override
+        public Header getContentEncoding() {
+            return gzip ? null : wrappedEntity.getContentEncoding();
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (var content = getContent()) {
+                content.transferTo(out);
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final LongAdder[] counters;
+
+        CountingInputStream(InputStream in, LongAdder... counters) {
+            super(in);
+            this.counters = counters;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            var n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            var skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) {
+            for (var counter : counters) {
+                counter.add(n);
+            }
+        }
+    }
+}
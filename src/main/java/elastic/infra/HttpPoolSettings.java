@@ -0,0 +1,21 @@
+package elastic.infra;
+
+import java.time.Duration;
+import java.util.Objects;
+
+public record HttpPoolSettings(int maxTotal, int maxPerRoute, Duration keepAlive, Duration idleTimeout) {
+
+    public static final HttpPoolSettings DEFAULT = new HttpPoolSettings(
+            100, 20, Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+    public HttpPoolSettings {
+        if (maxTotal < 1 || maxPerRoute < 1) {
+            throw new IllegalArgumentException("Max connections must be positive!");
+        }
+        if (maxPerRoute > maxTotal) {
+            throw new IllegalArgumentException("Max connections per route cannot exceed max total!");
+        }
+        Objects.requireNonNull(keepAlive, "Keep alive is required!");
+        Objects.requireNonNull(idleTimeout, "Idle timeout is required!");
+    }
+}
@@ -0,0 +1,315 @@
+package elastic.infra;
+
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Pooled sync and async Apache clients spreading requests over the nodes of a {@link NodePool}.
+ * Requests carry only a path; each attempt goes to the next candidate node, and a request whose node
+ * cannot be reached or answers 502, 503 or 504 is retried on the next one if its body can be replayed.
+ */
+public class HttpTransport implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpTransport.class.getName());
+
+    private final HttpPoolSettings settings;
+    private final HttpCompression compression;
+    private final NodePool nodePool;
+    private final NodePool.NodesInfoFetcher nodesInfoFetcher = this::nodesInfo;
+    private final BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+    private final CloseableHttpClient client;
+    private CloseableHttpAsyncClient asyncClient;
+
+    public HttpTransport() {
+        this(HttpPoolSettings.DEFAULT);
+    }
+
+    public HttpTransport(HttpPoolSettings settings) {
+        this(settings, CompressionSettings.DISABLED);
+    }
+
+    public HttpTransport(HttpPoolSettings settings, CompressionSettings compressionSettings) {
+        this(settings, compressionSettings, NodeSettings.DEFAULT);
+    }
+
+    public HttpTransport(HttpPoolSettings settings, CompressionSettings compressionSettings,
+                         NodeSettings nodeSettings) {
+        this.settings = settings;
+        this.compression = new HttpCompression(compressionSettings);
+        this.nodePool = NodePool.acquire(nodeSettings);
+        ElasticFactory.setCredentials(credentialsProvider);
+
+        var connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(settings.maxTotal());
+        connectionManager.setDefaultMaxPerRoute(settings.maxPerRoute());
+
+        this.client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultCredentialsProvider(credentialsProvider)
+                .setKeepAliveStrategy(keepAliveStrategy())
+                .evictExpiredConnections()
+                .evictIdleConnections(settings.idleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .disableContentCompression()
+                .build();
+        nodePool.startSniffing(nodesInfoFetcher);
+    }
+
+    public CompressionStats compressionStats() {
+        return compression.stats();
+    }
+
+    public NodePool nodePool() {
+        return nodePool;
+    }
+
+    public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> handler) throws IOException {
+        if (compression.enabled()) {
+            compression.compress(request);
+        }
+        var nodes = nodePool.candidates().iterator();
+        while (true) {
+            var node = nodes.next();
+            var canRetry = nodes.hasNext() && isReplayable(request);
+            var attempt = new Attempt(node);
+            try {
+                return client.execute(node, request, response -> {
+                    if (isRetryStatus(response)) {
+                        attempt.failure();
+                        if (canRetry) {
+                            throw new RetryStatusException(response.getStatusLine().getStatusCode());
+                        }
+                    } else {
+                        attempt.success();
+                    }
+                    try {
+                        return handler.handleResponse(compression.enabled() ? compression.decompress(response) : response);
+                    } catch (IOException e) {
+                        throw new HandlerException(e);
+                    }
+                });
+            } catch (HandlerException e) {
+                throw e.handlerCause();
+            } catch (IOException e) {
+                attempt.failure();
+                if (!canRetry) {
+                    throw e;
+                }
+                LOGGER.warning("Request to " + node + " failed, trying the next node: " + e.getMessage());
+                reset(request);
+            } catch (RuntimeException e) {
+                attempt.cancel();
+                throw e;
+            }
+        }
+    }
+
+    public CompletableFuture<HttpResponse> executeAsync(HttpUriRequest request) {
+        var future = new CompletableFuture<HttpResponse>();
+        if (compression.enabled()) {
+            try {
+                compression.compress(request);
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+                return future;
+            }
+        }
+        executeAsync(request, nodePool.candidates().iterator(), future);
+        return future;
+    }
+
+    private void executeAsync(HttpUriRequest request, Iterator<HttpHost> nodes,
+                              CompletableFuture<HttpResponse> future) {
+        var node = nodes.next();
+        var canRetry = nodes.hasNext() && isReplayable(request);
+        nodePool.onStart(node);
+        asyncClient().execute(node, request, new FutureCallback<>() {
+            @Override
+            public void completed(HttpResponse response) {
+                if (!isRetryStatus(response)) {
+                    nodePool.onSuccess(node);
+                } else if (canRetry) {
+                    EntityUtils.consumeQuietly(response.getEntity());
+                    retry(new RetryStatusException(response.getStatusLine().getStatusCode()));
+                    return;
+                } else {
+                    nodePool.onFailure(node);
+                }
+                future.complete(compression.enabled() ? compression.decompress(response) : response);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                if (canRetry) {
+                    retry(e);
+                } else {
+                    nodePool.onFailure(node);
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void cancelled() {
+                nodePool.onCancel(node);
+                future.cancel(false);
+            }
+
+            private void retry(Exception e) {
+                nodePool.onFailure(node);
+                LOGGER.warning("Request to " + node + " failed, trying the next node: " + e.getMessage());
+                reset(request);
+                executeAsync(request, nodes, future);
+            }
+        });
+    }
+
+    private static boolean isReplayable(HttpUriRequest request) {
+        return !(request instanceof HttpEntityEnclosingRequest enclosing)
+                || enclosing.getEntity() == null
+                || enclosing.getEntity().isRepeatable();
+    }
+
+    private static void reset(HttpUriRequest request) {
+        if (request instanceof HttpRequestBase base) {
+            base.reset();
+        }
+    }
+
+    private static boolean isRetryStatus(HttpResponse response) {
+        var status = response.getStatusLine().getStatusCode();
+        return status == 502 || status == 503 || status == 504;
+    }
+
+    private byte[] nodesInfo(HttpHost node) throws IOException {
+        var request = new HttpGet("/_nodes/http");
+        request.setHeader("Accept", WireFormat.JSON.mediaType());
+        return client.execute(node, request, response -> {
+            if (response.getStatusLine().getStatusCode() != 200) {
+                throw new IOException("Nodes info failed with status " + response.getStatusLine().getStatusCode());
+            }
+            return EntityUtils.toByteArray(response.getEntity());
+        });
+    }
+
+    private synchronized CloseableHttpAsyncClient asyncClient() {
+        if (asyncClient == null) {
+            asyncClient = HttpAsyncClients.custom()
+                    .setMaxConnTotal(settings.maxTotal())
+                    .setMaxConnPerRoute(settings.maxPerRoute())
+                    .setDefaultCredentialsProvider(credentialsProvider)
+                    .setKeepAliveStrategy(keepAliveStrategy())
+                    .build();
+            asyncClient.start();
+        }
+        return asyncClient;
+    }
+
+    private ConnectionKeepAliveStrategy keepAliveStrategy() {
+        var keepAliveMillis = settings.keepAlive().toMillis();
+        return (response, context) -> {
+            var serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                    .getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        };
+    }
+
+    @Override
+    public synchronized void close() {
+        nodePool.stopSniffing(nodesInfoFetcher);
+        nodePool.release();
+        var failure = close(client, null);
+        if (asyncClient != null) {
+            failure = close(asyncClient, failure);
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    // Closes one client even if another failed to close, keeping the first failure.
+    private static IOException close(Closeable closeable, IOException failure) {
+        try {
+            closeable.close();
+            return failure;
+        } catch (IOException e) {
+            LOGGER.severe("Close error: " + e.getMessage());
+            return failure != null ? failure : e;
+        }
+    }
+
+    // Reports one request to the pool once: a 502/503/504 counts as a failure even when no node is left to
+    // retry, and a request that never got an answer only gives back its outstanding slot.
+    private class Attempt {
+        private final HttpHost node;
+        private boolean reported;
+
+        Attempt(HttpHost node) {
+            this.node = node;
+            nodePool.onStart(node);
+        }
+
+        void success() {
+            if (!reported) {
+                reported = true;
+                nodePool.onSuccess(node);
+            }
+        }
+
+        void failure() {
+            if (!reported) {
+                reported = true;
+                nodePool.onFailure(node);
+            }
+        }
+
+        void cancel() {
+            if (!reported) {
+                reported = true;
+                nodePool.onCancel(node);
+            }
+        }
+    }
+
+    private static class RetryStatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        RetryStatusException(int status) {
+            super("Node answered with status " + status);
+        }
+    }
+
+    // Carries failures of the caller's handler past the node failover, since the node did answer.
+    private static class HandlerException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        HandlerException(IOException cause) {
+            super(cause);
+        }
+
+        IOException handlerCause() {
+            return (IOException) getCause();
+        }
+    }
+}
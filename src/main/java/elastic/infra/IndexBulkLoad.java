@@ -0,0 +1,64 @@
+package elastic.infra;
+
+import elastic.model.BulkLoad;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Turns periodic refresh and replicas off for the duration of a bulk load and puts back
+ * the values the index had when the load began.
+ */
+public class IndexBulkLoad implements BulkLoad {
+
+    private static final Logger LOGGER = Logger.getLogger(IndexBulkLoad.class.getName());
+    static final DynamicSettings LOADING = new DynamicSettings("-1", "0");
+
+    private final IndexAdmin admin;
+    private final DynamicSettings previous;
+    private final int maxNumSegments;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private IndexBulkLoad(IndexAdmin admin, DynamicSettings previous, int maxNumSegments) {
+        this.admin = admin;
+        this.previous = previous;
+        this.maxNumSegments = maxNumSegments;
+    }
+
+    public static IndexBulkLoad begin(IndexAdmin admin, int maxNumSegments, IndexSettings fallback) {
+        if (maxNumSegments < 0) {
+            throw new IllegalArgumentException("Max number of segments cannot be negative!");
+        }
+        var current = admin.currentSettings();
+        var previous = new DynamicSettings(
+                Objects.requireNonNullElse(current.refreshInterval(), fallback.refreshIntervalParam()),
+                Objects.requireNonNullElse(current.numberOfReplicas(), String.valueOf(fallback.replicas())));
+        admin.updateSettings(LOADING);
+        LOGGER.info("Bulk load started, previous settings: " + previous);
+        return new IndexBulkLoad(admin, previous, maxNumSegments);
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        admin.updateSettings(previous);
+        admin.refresh();
+        if (maxNumSegments > 0) {
+            admin.forceMerge(maxNumSegments);
+        }
+        LOGGER.info("Bulk load finished, settings restored: " + previous);
+    }
+
+    public record DynamicSettings(String refreshInterval, String numberOfReplicas) {
+    }
+
+    public interface IndexAdmin {
+        DynamicSettings currentSettings();
+        void updateSettings(DynamicSettings settings);
+        void refresh();
+        void forceMerge(int maxNumSegments);
+    }
+}
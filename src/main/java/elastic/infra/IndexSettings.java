@@ -0,0 +1,27 @@
+package elastic.infra;
+
+import java.time.Duration;
+
+/**
+ * Static settings applied by {@code createIndex}. A {@code null} refresh interval disables periodic refresh.
+ */
+public record IndexSettings(int shards, int replicas, Duration refreshInterval) {
+
+    public static final IndexSettings DEFAULT = new IndexSettings(1, 1, Duration.ofSeconds(1));
+
+    public IndexSettings {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Number of shards must be positive!");
+        }
+        if (replicas < 0) {
+            throw new IllegalArgumentException("Number of replicas cannot be negative!");
+        }
+        if (refreshInterval != null && (refreshInterval.isNegative() || refreshInterval.isZero())) {
+            throw new IllegalArgumentException("Refresh interval must be positive or null to disable refresh!");
+        }
+    }
+
+    public String refreshIntervalParam() {
+        return refreshInterval == null ? "-1" : refreshInterval.toMillis() + "ms";
+    }
+}
@@ -0,0 +1,248 @@
+package elastic.infra;
+
+import elastic.model.BulkLoad;
+import elastic.model.BirthYearBucket;
+import elastic.model.BulkResult;
+import elastic.model.CreditLimitStats;
+import elastic.model.Person;
+import elastic.model.PersonField;
+import elastic.model.PersonProjection;
+import elastic.model.PersonRepository;
+import elastic.model.RefreshPolicy;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+public class InstrumentedPersonRepository implements PersonRepository {
+
+    private static final Logger LOGGER = Logger.getLogger(InstrumentedPersonRepository.class.getName());
+
+    private final PersonRepository delegate;
+    private final MBeanServer mBeanServer;
+    private final Map<String, OperationMetrics> metrics = new LinkedHashMap<>();
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+    private final OperationMetrics save = operation("save");
+    private final OperationMetrics saveAll = operation("saveAll");
+    private final OperationMetrics get = operation("get");
+    private final OperationMetrics getMany = operation("getMany");
+    private final OperationMetrics getAll = operation("getAll");
+    private final OperationMetrics queryByName = operation("queryByName");
+    private final OperationMetrics queryByCreditLimit = operation("queryByCreditLimit");
+    private final OperationMetrics count = operation("count");
+    private final OperationMetrics creditLimitStats = operation("creditLimitStats");
+    private final OperationMetrics histogramByBirthYear = operation("histogramByBirthYear");
+    private final OperationMetrics refresh = operation("refresh");
+    private final OperationMetrics reindexFrom = operation("reindexFrom");
+
+    public InstrumentedPersonRepository(PersonRepository delegate) {
+        this(delegate, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public InstrumentedPersonRepository(PersonRepository delegate, MBeanServer mBeanServer) {
+        this.delegate = delegate;
+        this.mBeanServer = mBeanServer;
+        registerMBeans();
+    }
+
+    public Map<String, OperationMetrics> metrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    public Map<String, OperationMetrics.Interval> snapshotAndReset() {
+        var intervals = new LinkedHashMap<String, OperationMetrics.Interval>();
+        metrics.forEach((operation, operationMetrics) ->
+                intervals.put(operation, operationMetrics.snapshotAndReset()));
+        return intervals;
+    }
+
+    @Override
+    public void save(Person person) {
+        time(save, () -> {
+            delegate.save(person);
+            return null;
+        });
+    }
+
+    @Override
+    public void save(Person person, RefreshPolicy refreshPolicy) {
+        time(save, () -> {
+            delegate.save(person, refreshPolicy);
+            return null;
+        });
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons) {
+        return time(saveAll, () -> delegate.saveAll(persons));
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons, RefreshPolicy refreshPolicy) {
+        return time(saveAll, () -> delegate.saveAll(persons, refreshPolicy));
+    }
+
+    @Override
+    public Optional<Person> get(String id) {
+        return time(get, () -> delegate.get(id));
+    }
+
+    @Override
+    public Map<String, Person> getMany(Collection<String> ids) {
+        return time(getMany, () -> delegate.getMany(ids));
+    }
+
+    @Override
+    public List<Person> getAll(boolean onlyCustomers) {
+        return time(getAll, () -> delegate.getAll(onlyCustomers));
+    }
+
+    @Override
+    public List<PersonProjection> getAll(boolean onlyCustomers, Set<PersonField> fields) {
+        return time(getAll, () -> delegate.getAll(onlyCustomers, fields));
+    }
+
+    @Override
+    public Stream<Person> streamAll(boolean onlyCustomers) {
+        return delegate.streamAll(onlyCustomers);
+    }
+
+    @Override
+    public List<Person> queryByName(String name) {
+        return time(queryByName, () -> delegate.queryByName(name));
+    }
+
+    @Override
+    public List<PersonProjection> queryByName(String name, Set<PersonField> fields) {
+        return time(queryByName, () -> delegate.queryByName(name, fields));
+    }
+
+    @Override
+    public List<Person> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue) {
+        return time(queryByCreditLimit, () -> delegate.queryByCreditLimit(minValue, maxValue));
+    }
+
+    @Override
+    public List<PersonProjection> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue,
+                                                     Set<PersonField> fields) {
+        return time(queryByCreditLimit, () -> delegate.queryByCreditLimit(minValue, maxValue, fields));
+    }
+
+    @Override
+    public long count(boolean onlyCustomers) {
+        return time(count, () -> delegate.count(onlyCustomers));
+    }
+
+    @Override
+    public CreditLimitStats creditLimitStats(boolean onlyCustomers) {
+        return time(creditLimitStats, () -> delegate.creditLimitStats(onlyCustomers));
+    }
+
+    @Override
+    public List<BirthYearBucket> histogramByBirthYear(int fromYear, int toYear, boolean onlyCustomers) {
+        return time(histogramByBirthYear, () -> delegate.histogramByBirthYear(fromYear, toYear, onlyCustomers));
+    }
+
+    @Override
+    public void refresh() {
+        time(refresh, () -> {
+            delegate.refresh();
+            return null;
+        });
+    }
+
+    @Override
+    public BulkLoad beginBulkLoad(int maxNumSegments) {
+        return delegate.beginBulkLoad(maxNumSegments);
+    }
+
+    @Override
+    public void createIndex() {
+        delegate.createIndex();
+    }
+
+    @Override
+    public void deleteIndex() {
+        delegate.deleteIndex();
+    }
+
+    @Override
+    public long reindexFrom(String sourceIndex) {
+        return time(reindexFrom, () -> delegate.reindexFrom(sourceIndex));
+    }
+
+    @Override
+    public void close() {
+        try {
+            delegate.close();
+        } finally {
+            unregisterMBeans();
+        }
+    }
+
+    private static <T> T time(OperationMetrics operationMetrics, Supplier<T> call) {
+        var start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            operationMetrics.recordError();
+            throw e;
+        } finally {
+            operationMetrics.record(System.nanoTime() - start);
+        }
+    }
+
+    private OperationMetrics operation(String name) {
+        var operationMetrics = new OperationMetrics();
+        metrics.put(name, operationMetrics);
+        return operationMetrics;
+    }
+
+    // A second instance wrapping the same repository class gets its own instance key instead of
+    // taking over the MBeans of the first.
+    private void registerMBeans() {
+        var repositoryClass = delegate.getClass();
+        var repository = repositoryClass.isAnonymousClass()
+                ? repositoryClass.getName() : repositoryClass.getSimpleName();
+        var prefix = "elastic:type=PersonRepository,repository=" + repository;
+        var instance = 1;
+        while (!tryRegisterMBeans(instance == 1 ? prefix : prefix + ",instance=" + instance)) {
+            instance++;
+        }
+    }
+
+    private boolean tryRegisterMBeans(String prefix) {
+        for (var entry : metrics.entrySet()) {
+            try {
+                var name = new ObjectName(prefix + ",operation=" + entry.getKey());
+                mBeanServer.registerMBean(entry.getValue(), name);
+                registeredNames.add(name);
+            } catch (InstanceAlreadyExistsException e) {
+                unregisterMBeans();
+                return false;
+            } catch (JMException e) {
+                LOGGER.warning("Cannot register metrics MBean: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void unregisterMBeans() {
+        for (var name : registeredNames) {
+            try {
+                mBeanServer.unregisterMBean(name);
+            } catch (JMException e) {
+                LOGGER.warning("Cannot unregister metrics MBean: " + e.getMessage());
+            }
+        }
+        registeredNames.clear();
+    }
+
+}
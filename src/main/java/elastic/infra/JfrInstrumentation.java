@@ -0,0 +1,86 @@
+package elastic.infra;
+
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import co.elastic.clients.transport.http.TransportHttpClient;
+import co.elastic.clients.transport.instrumentation.Instrumentation;
+
+/**
+ * Emits an {@link ElasticRequestEvent} for every call made through the Java client transport.
+ * The client decodes the response into its own model before handing it back, so that decoding
+ * is what the deserialize phase measures here.
+ */
+public class JfrInstrumentation implements Instrumentation {
+
+    private static final ThreadScope NO_SCOPE = () -> { };
+
+    private final String repository;
+
+    public JfrInstrumentation(String repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public <TRequest> Context newContext(TRequest request, Endpoint<TRequest, ?, ?> endpoint) {
+        return new EventContext(ElasticRequestEvent.start(repository, endpoint.id()));
+    }
+
+    private record EventContext(ElasticRequestEvent event) implements Context {
+
+        @Override
+        public ThreadScope makeCurrent() {
+            return NO_SCOPE;
+        }
+
+        @Override
+        public void beforeSendingHttpRequest(TransportHttpClient.Request request, TransportOptions options) {
+            var bytes = 0L;
+            if (request.body() != null) {
+                for (var buffer : request.body()) {
+                    bytes += buffer.remaining();
+                }
+            }
+            event.serialized(bytes);
+        }
+
+        @Override
+        public void afterReceivingHttpResponse(TransportHttpClient.Response response) {
+            event.responseReceived(response.statusCode(), contentLength(response));
+        }
+
+        @Override
+        public <TResponse> void afterDecodingApiResponse(TResponse response) {
+            if (response instanceof SearchResponse<?> search) {
+                event.result(search.hits().hits().size(), search.took());
+            } else if (response instanceof BulkResponse bulk) {
+                event.result(bulk.items().size(), bulk.took());
+            } else if (response instanceof MgetResponse<?> mget) {
+                event.result(mget.docs().size(), null);
+            } else if (response instanceof GetResponse<?> get) {
+                event.result(get.found() ? 1 : 0, null);
+            }
+        }
+
+        @Override
+        public void recordException(Throwable throwable) {
+        }
+
+        @Override
+        public void close() {
+            event.finish();
+        }
+
+        private static long contentLength(TransportHttpClient.Response response) {
+            var header = response.header("Content-Length");
+            try {
+                return header != null ? Long.parseLong(header) : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package elastic.infra;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of nanosecond latencies: every power of two is split into
+ * 16 linear sub-buckets, so reported percentiles are within about 6% of the recorded value.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        var value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public Snapshot snapshot() {
+        return snapshot(false);
+    }
+
+    public Snapshot snapshotAndReset() {
+        return snapshot(true);
+    }
+
+    private Snapshot snapshot(boolean reset) {
+        var buckets = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = reset ? counts.getAndSet(i, 0) : counts.get(i);
+            count += buckets[i];
+        }
+        var sumNanos = reset ? sum.getAndSet(0) : sum.get();
+        var maxNanos = reset ? max.getAndSet(0) : max.get();
+        return new Snapshot(count, sumNanos, maxNanos,
+                percentile(buckets, count, maxNanos, 0.50),
+                percentile(buckets, count, maxNanos, 0.99),
+                percentile(buckets, count, maxNanos, 0.999));
+    }
+
+    private static long percentile(long[] buckets, long count, long max, double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        var rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        var shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        var subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        var shift = index / SUB_BUCKETS - 1;
+        var subBucket = index % SUB_BUCKETS;
+        var upperBound = ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+        return upperBound < 0 ? Long.MAX_VALUE : upperBound;
+    }
+
+    public record Snapshot(long count, long sumNanos, long maxNanos, long p50Nanos, long p99Nanos, long p999Nanos) {
+
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) sumNanos / count;
+        }
+    }
+}
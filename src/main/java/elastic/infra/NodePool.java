@@ -0,0 +1,320 @@
+package elastic.infra;
+
+import org.apache.http.HttpHost;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Node list shared by the transports of every repository: picks the order in which nodes are tried for
+ * a request, counts requests in flight per node and skips failed nodes until their backoff has passed.
+ * A node past its backoff is tried again with live traffic and is revived by its first success.
+ * When every node is dead, the one that comes back first is tried, as the low-level REST client does.
+ * Transports take their pool from {@link #acquire(NodeSettings)}, so every repository using the same
+ * settings shares the node state and a single sniffer.
+ */
+public class NodePool implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(NodePool.class.getName());
+    private static final Map<NodeSettings, NodePool> SHARED = new HashMap<>();
+
+    private final NodeSettings settings;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger rotation = new AtomicInteger();
+    private volatile List<Node> nodes;
+    private final List<NodesInfoFetcher> fetchers = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<HttpHost>>> hostsListeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService sniffScheduler;
+    private int users;
+
+    public NodePool(NodeSettings settings) {
+        this(settings, System::nanoTime);
+    }
+
+    public NodePool(NodeSettings settings, LongSupplier nanoClock) {
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.nodes = settings.hosts().stream().map(Node::new).toList();
+    }
+
+    /**
+     * The pool shared by every user of these settings; give it back with {@link #release()}.
+     */
+    public static NodePool acquire(NodeSettings settings) {
+        synchronized (SHARED) {
+            var pool = SHARED.computeIfAbsent(settings, NodePool::new);
+            pool.users++;
+            return pool;
+        }
+    }
+
+    /**
+     * Gives back a pool taken with {@link #acquire(NodeSettings)}; the last user stops its sniffer.
+     */
+    public void release() {
+        synchronized (SHARED) {
+            if (--users > 0) {
+                return;
+            }
+            SHARED.remove(settings, this);
+        }
+        close();
+    }
+
+    public NodeSettings settings() {
+        return settings;
+    }
+
+    public List<HttpHost> hosts() {
+        return nodes.stream().map(node -> node.host).toList();
+    }
+
+    /**
+     * Nodes to try for the next request, in order; failing over stops at the end of the list.
+     */
+    public List<HttpHost> candidates() {
+        var now = nanoClock.getAsLong();
+        var current = nodes;
+        var alive = new ArrayList<Node>(current.size());
+        var start = Math.floorMod(rotation.getAndIncrement(), current.size());
+        for (int i = 0; i < current.size(); i++) {
+            var node = current.get((start + i) % current.size());
+            if (node.isAlive(now)) {
+                alive.add(node);
+            }
+        }
+        if (alive.isEmpty()) {
+            var soonest = current.stream()
+                    .min(Comparator.comparingLong(node -> node.deadUntil - now))
+                    .orElseThrow();
+            return List.of(soonest.host);
+        }
+        if (settings.selection() == NodeSettings.Selection.LEAST_OUTSTANDING) {
+            // Stable sort, so the rotation still spreads ties.
+            alive.sort(Comparator.comparingInt(node -> node.outstanding.get()));
+        }
+        return alive.stream().map(node -> node.host).toList();
+    }
+
+    public void onStart(HttpHost host) {
+        var node = find(host);
+        if (node != null) {
+            node.outstanding.incrementAndGet();
+        }
+    }
+
+    public void onSuccess(HttpHost host) {
+        var node = find(host);
+        if (node == null) {
+            return;
+        }
+        node.outstanding.decrementAndGet();
+        synchronized (node) {
+            if (node.failures > 0) {
+                LOGGER.info("Node is alive again: " + host);
+                node.failures = 0;
+            }
+        }
+    }
+
+    public void onFailure(HttpHost host) {
+        var node = find(host);
+        if (node == null) {
+            return;
+        }
+        node.outstanding.decrementAndGet();
+        synchronized (node) {
+            node.failures++;
+            var backoff = backoff(node.failures);
+            node.deadUntil = nanoClock.getAsLong() + backoff.toNanos();
+            LOGGER.warning("Node marked dead for " + backoff.toSeconds() + "s after "
+                    + node.failures + " failure(s): " + host);
+        }
+    }
+
+    /**
+     * A request given up before the node answered: only its outstanding count drops, the health stays.
+     */
+    public void onCancel(HttpHost host) {
+        var node = find(host);
+        if (node != null) {
+            node.outstanding.decrementAndGet();
+        }
+    }
+
+    public boolean isAlive(HttpHost host) {
+        var node = find(host);
+        return node != null && node.isAlive(nanoClock.getAsLong());
+    }
+
+    public int outstanding(HttpHost host) {
+        var node = find(host);
+        return node == null ? 0 : node.outstanding.get();
+    }
+
+    /**
+     * Replaces the node list, keeping the counters and backoff of nodes that stay.
+     */
+    public synchronized void setHosts(List<HttpHost> hosts) {
+        if (hosts.isEmpty()) {
+            throw new IllegalArgumentException("At least one node is required!");
+        }
+        var current = nodes;
+        var updated = hosts.stream()
+                .distinct()
+                .map(host -> current.stream().filter(node -> node.host.equals(host)).findFirst()
+                        .orElseGet(() -> new Node(host)))
+                .toList();
+        nodes = updated;
+        if (!updated.equals(current)) {
+            var updatedHosts = hosts();
+            LOGGER.info("Nodes: " + updatedHosts);
+            hostsListeners.forEach(listener -> listener.accept(updatedHosts));
+        }
+    }
+
+    /**
+     * Called with the new node list whenever {@link #setHosts(List)} changes it.
+     */
+    public void addHostsListener(Consumer<List<HttpHost>> listener) {
+        hostsListeners.add(listener);
+    }
+
+    public void removeHostsListener(Consumer<List<HttpHost>> listener) {
+        hostsListeners.remove(listener);
+    }
+
+    /**
+     * Refreshes the node list from {@code _nodes/http} now and then every sniff interval, asking the
+     * first candidate that answers through the first fetcher still registered. Users of a shared pool
+     * each register their fetcher and remove it with {@link #stopSniffing(NodesInfoFetcher)}.
+     * Only registers the fetcher when sniffing is disabled.
+     */
+    public synchronized void startSniffing(NodesInfoFetcher fetcher) {
+        fetchers.add(fetcher);
+        if (!settings.sniffing() || sniffScheduler != null) {
+            return;
+        }
+        sniffScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "node-sniffer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sniffScheduler.scheduleWithFixedDelay(this::sniff,
+                0, settings.sniffInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stopSniffing(NodesInfoFetcher fetcher) {
+        fetchers.remove(fetcher);
+    }
+
+    private void sniff() {
+        var fetcher = fetchers.isEmpty() ? null : fetchers.get(0);
+        if (fetcher != null) {
+            sniff(fetcher);
+        }
+    }
+
+    public boolean sniff(NodesInfoFetcher fetcher) {
+        for (var host : candidates()) {
+            try {
+                var published = publishedHosts(fetcher.fetch(host), host.getSchemeName());
+                if (!published.isEmpty()) {
+                    setHosts(published);
+                    return true;
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warning("Sniffing " + host + " failed: " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * HTTP publish addresses of a {@code _nodes/http} response, skipping dedicated master nodes.
+     * An address of the form {@code hostname/ip:port} is reached through its hostname.
+     */
+    public static List<HttpHost> publishedHosts(byte[] nodesInfo, String scheme) throws IOException {
+        var response = new Serializer().fromBytes(new ByteArrayInputStream(nodesInfo), WireFormat.JSON, Map.class);
+        var hosts = new ArrayList<HttpHost>();
+        if (!(response.get("nodes") instanceof Map<?, ?> nodes)) {
+            return hosts;
+        }
+        for (var info : nodes.values()) {
+            if (!(info instanceof Map<?, ?> node) || !(node.get("http") instanceof Map<?, ?> http)
+                    || !(http.get("publish_address") instanceof String address)) {
+                continue;
+            }
+            if (node.get("roles") instanceof List<?> roles && roles.equals(List.of("master"))) {
+                continue;
+            }
+            var slash = address.indexOf('/');
+            if (slash > 0) {
+                var port = address.substring(address.lastIndexOf(':'));
+                address = address.substring(0, slash) + port;
+            } else if (slash == 0) {
+                address = address.substring(1);
+            }
+            hosts.add(HttpHost.create(scheme + "://" + address));
+        }
+        return hosts;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sniffScheduler != null) {
+            sniffScheduler.shutdownNow();
+        }
+    }
+
+    private Duration backoff(int failures) {
+        var backoff = settings.deadBackoff().multipliedBy(1L << Math.min(failures - 1, 20));
+        return backoff.compareTo(settings.maxDeadBackoff()) > 0 ? settings.maxDeadBackoff() : backoff;
+    }
+
+    private Node find(HttpHost host) {
+        for (var node : nodes) {
+            if (node.host.equals(host)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the raw {@code _nodes/http} response of the given node.
+     */
+    @FunctionalInterface
+    public interface NodesInfoFetcher {
+        byte[] fetch(HttpHost host) throws IOException;
+    }
+
+    private static final class Node {
+        private final HttpHost host;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile int failures;
+        private volatile long deadUntil;
+
+        Node(HttpHost host) {
+            this.host = host;
+        }
+
+        boolean isAlive(long now) {
+            return failures == 0 || deadUntil - now <= 0;
+        }
+    }
+}
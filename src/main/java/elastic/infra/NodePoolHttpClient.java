@@ -0,0 +1,239 @@
+package elastic.infra;
+
+import co.elastic.clients.transport.TransportOptions;
+import co.elastic.clients.transport.http.TransportHttpClient;
+import co.elastic.clients.transport.rest_client.RestClientHttpClient;
+import org.apache.http.HttpHost;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Java client HTTP layer that lets a {@link NodePool} choose the node of every request, so the Java client
+ * repositories balance, back off and fail over exactly like {@link HttpTransport}. Each node gets its own
+ * single-host low-level REST client, created on first use and closed once sniffing dropped the node and
+ * its last request finished.
+ */
+class NodePoolHttpClient implements TransportHttpClient {
+
+    private static final Logger LOGGER = Logger.getLogger(NodePoolHttpClient.class.getName());
+
+    private final NodePool nodePool;
+    private final Function<HttpHost, RestClient> restClientFactory;
+    private final Map<HttpHost, NodeClient> nodeClients = new ConcurrentHashMap<>();
+    private final NodePool.NodesInfoFetcher nodesInfoFetcher = this::nodesInfo;
+    private final Consumer<List<HttpHost>> hostsListener = this::closeDroppedClients;
+
+    NodePoolHttpClient(NodePool nodePool, Function<HttpHost, RestClient> restClientFactory) {
+        this.nodePool = nodePool;
+        this.restClientFactory = restClientFactory;
+        nodePool.addHostsListener(hostsListener);
+        nodePool.startSniffing(nodesInfoFetcher);
+    }
+
+    NodePool nodePool() {
+        return nodePool;
+    }
+
+    @Override
+    public TransportOptions createOptions(TransportOptions options) {
+        return httpClient(nodePool.hosts().get(0)).createOptions(options);
+    }
+
+    @Override
+    public Response performRequest(String endpointId, Node node, Request request,
+                                   TransportOptions options) throws IOException {
+        var nodes = nodePool.candidates().iterator();
+        while (true) {
+            var host = nodes.next();
+            var nodeClient = acquire(host);
+            nodePool.onStart(host);
+            try {
+                var response = nodeClient.httpClient().performRequest(endpointId, node, replayable(request), options);
+                nodePool.onSuccess(host);
+                return response;
+            } catch (IOException e) {
+                if (!isNodeFailure(e)) {
+                    nodePool.onSuccess(host);
+                    throw e;
+                }
+                nodePool.onFailure(host);
+                if (!nodes.hasNext()) {
+                    throw e;
+                }
+                LOGGER.warning("Request to " + host + " failed, trying the next node: " + e.getMessage());
+            } finally {
+                nodeClient.release();
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> performRequestAsync(String endpointId, Node node, Request request,
+                                                           TransportOptions options) {
+        var result = new CompletableFuture<Response>();
+        performRequestAsync(endpointId, node, request, options, nodePool.candidates().iterator(), result);
+        return result;
+    }
+
+    private void performRequestAsync(String endpointId, Node node, Request request, TransportOptions options,
+                                     Iterator<HttpHost> nodes, CompletableFuture<Response> result) {
+        var host = nodes.next();
+        var nodeClient = acquire(host);
+        nodePool.onStart(host);
+        nodeClient.httpClient().performRequestAsync(endpointId, node, replayable(request), options)
+                .whenComplete((response, e) -> {
+                    nodeClient.release();
+                    if (e == null) {
+                        nodePool.onSuccess(host);
+                        result.complete(response);
+                        return;
+                    }
+                    var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (!isNodeFailure(cause)) {
+                        nodePool.onSuccess(host);
+                        result.completeExceptionally(cause);
+                    } else if (nodes.hasNext()) {
+                        nodePool.onFailure(host);
+                        LOGGER.warning("Request to " + host + " failed, trying the next node: " + cause.getMessage());
+                        performRequestAsync(endpointId, node, request, options, nodes, result);
+                    } else {
+                        nodePool.onFailure(host);
+                        result.completeExceptionally(cause);
+                    }
+                });
+    }
+
+    @Override
+    public void close() throws IOException {
+        nodePool.stopSniffing(nodesInfoFetcher);
+        nodePool.removeHostsListener(hostsListener);
+        nodePool.release();
+        IOException failure = null;
+        for (var nodeClient : nodeClients.values()) {
+            try {
+                nodeClient.restClient.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void closeDroppedClients(List<HttpHost> hosts) {
+        for (var host : List.copyOf(nodeClients.keySet())) {
+            if (!hosts.contains(host)) {
+                nodeClients.remove(host).drop();
+            }
+        }
+    }
+
+    // The returned client stays open until released, even if sniffing drops its node meanwhile.
+    private NodeClient acquire(HttpHost host) {
+        while (true) {
+            var nodeClient = nodeClients.computeIfAbsent(host, this::nodeClient);
+            if (nodeClient.acquire()) {
+                return nodeClient;
+            }
+            nodeClients.remove(host, nodeClient);
+        }
+    }
+
+    private NodeClient nodeClient(HttpHost host) {
+        return new NodeClient(restClientFactory.apply(host));
+    }
+
+    private RestClientHttpClient httpClient(HttpHost host) {
+        return new RestClientHttpClient(nodeClients.computeIfAbsent(host, this::nodeClient).restClient);
+    }
+
+    private byte[] nodesInfo(HttpHost host) throws IOException {
+        var request = new org.elasticsearch.client.Request("GET", "/_nodes/http");
+        var nodeClient = acquire(host);
+        try {
+            var response = nodeClient.restClient.performRequest(request);
+            return EntityUtils.toByteArray(response.getEntity());
+        } finally {
+            nodeClient.release();
+        }
+    }
+
+    // Errors the node answered with are the caller's; only unreachable or overloaded nodes fail over.
+    private static boolean isNodeFailure(Throwable e) {
+        if (e instanceof ResponseException responseException) {
+            var status = responseException.getResponse().getStatusLine().getStatusCode();
+            return status == 502 || status == 503 || status == 504;
+        }
+        return e instanceof IOException || e instanceof UncheckedIOException;
+    }
+
+    // REST client of one node with the number of requests in flight on it.
+    private static class NodeClient {
+        private final RestClient restClient;
+        private int inFlight;
+        private boolean dropped;
+
+        NodeClient(RestClient restClient) {
+            this.restClient = restClient;
+        }
+
+        RestClientHttpClient httpClient() {
+            return new RestClientHttpClient(restClient);
+        }
+
+        synchronized boolean acquire() {
+            if (dropped) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        synchronized void release() {
+            if (--inFlight == 0 && dropped) {
+                close();
+            }
+        }
+
+        synchronized void drop() {
+            dropped = true;
+            if (inFlight == 0) {
+                close();
+            }
+        }
+
+        private void close() {
+            try {
+                restClient.close();
+            } catch (IOException e) {
+                LOGGER.severe("Close error: " + e.getMessage());
+            }
+        }
+    }
+
+    // Every attempt reads the body from its own buffer positions.
+    private static Request replayable(Request request) {
+        if (request.body() == null) {
+            return request;
+        }
+        var body = new ArrayList<ByteBuffer>();
+        request.body().forEach(buffer -> body.add(buffer.duplicate()));
+        return new Request(request.method(), request.path(), request.queryParams(), request.headers(), body);
+    }
+}
@@ -0,0 +1,18 @@
+package elastic.infra;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransportBase;
+import co.elastic.clients.transport.http.TransportHttpClient;
+import co.elastic.clients.transport.instrumentation.Instrumentation;
+import co.elastic.clients.transport.rest_client.RestClientOptions;
+import org.elasticsearch.client.RequestOptions;
+
+/**
+ * Java client transport over {@link NodePoolHttpClient}, the uncompressed counterpart of {@link GzipTransport}.
+ */
+class NodePoolTransport extends ElasticsearchTransportBase {
+
+    NodePoolTransport(TransportHttpClient httpClient, JsonpMapper mapper, Instrumentation instrumentation) {
+        super(httpClient, new RestClientOptions(RequestOptions.DEFAULT), mapper, instrumentation);
+    }
+}
@@ -0,0 +1,71 @@
+package elastic.infra;
+
+import org.apache.http.HttpHost;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Nodes requests are spread over, how the next node is chosen, how often the node list is refreshed from
+ * {@code _nodes/http} ({@link Duration#ZERO} disables sniffing) and how long a failed node is skipped:
+ * {@code deadBackoff}, doubled per consecutive failure up to {@code maxDeadBackoff}.
+ */
+public record NodeSettings(List<HttpHost> hosts, Selection selection, Duration sniffInterval,
+                           Duration deadBackoff, Duration maxDeadBackoff) {
+
+    /**
+     * Nodes of {@code elastic.url} / {@code ES_URL}, which may list several comma-separated URLs.
+     */
+    public static final NodeSettings DEFAULT = of(ElasticFactory.SERVER_URL);
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_OUTSTANDING
+    }
+
+    public NodeSettings {
+        if (hosts == null || hosts.isEmpty()) {
+            throw new IllegalArgumentException("At least one node is required!");
+        }
+        hosts = List.copyOf(hosts);
+        Objects.requireNonNull(selection, "Selection is required!");
+        Objects.requireNonNull(sniffInterval, "Sniff interval is required!");
+        if (sniffInterval.isNegative()) {
+            throw new IllegalArgumentException("Sniff interval must not be negative!");
+        }
+        if (deadBackoff.isNegative() || deadBackoff.isZero()) {
+            throw new IllegalArgumentException("Dead node backoff must be positive!");
+        }
+        if (maxDeadBackoff.compareTo(deadBackoff) < 0) {
+            throw new IllegalArgumentException("Max dead node backoff cannot be shorter than the backoff!");
+        }
+    }
+
+    public static NodeSettings of(String urls) {
+        var hosts = Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(HttpHost::create)
+                .toList();
+        return new NodeSettings(hosts, Selection.ROUND_ROBIN, Duration.ZERO,
+                Duration.ofMinutes(1), Duration.ofMinutes(30));
+    }
+
+    public NodeSettings withSelection(Selection selection) {
+        return new NodeSettings(hosts, selection, sniffInterval, deadBackoff, maxDeadBackoff);
+    }
+
+    public NodeSettings withSniffInterval(Duration sniffInterval) {
+        return new NodeSettings(hosts, selection, sniffInterval, deadBackoff, maxDeadBackoff);
+    }
+
+    public NodeSettings withDeadBackoff(Duration deadBackoff, Duration maxDeadBackoff) {
+        return new NodeSettings(hosts, selection, sniffInterval, deadBackoff, maxDeadBackoff);
+    }
+
+    public boolean sniffing() {
+        return !sniffInterval.isZero();
+    }
+}
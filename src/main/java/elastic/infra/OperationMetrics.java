@@ -0,0 +1,83 @@
+package elastic.infra;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private volatile long intervalStartNanos = System.nanoTime();
+
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public Interval snapshot() {
+        return new Interval(histogram.snapshot(), errors.sum(), System.nanoTime() - intervalStartNanos);
+    }
+
+    public synchronized Interval snapshotAndReset() {
+        var now = System.nanoTime();
+        var interval = new Interval(histogram.snapshotAndReset(), errors.sumThenReset(), now - intervalStartNanos);
+        intervalStartNanos = now;
+        return interval;
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.snapshot().count();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getThroughputPerSecond() {
+        return snapshot().throughputPerSecond();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return histogram.snapshot().meanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return histogram.snapshot().p50Nanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return histogram.snapshot().p99Nanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return histogram.snapshot().p999Nanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return histogram.snapshot().maxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset() {
+        snapshotAndReset();
+    }
+
+    public record Interval(LatencyHistogram.Snapshot latency, long errors, long elapsedNanos) {
+
+        public double throughputPerSecond() {
+            return elapsedNanos == 0 ? 0 : latency.count() * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package elastic.infra;
+
+public interface OperationMetricsMXBean {
+    long getCount();
+    long getErrors();
+    double getThroughputPerSecond();
+    double getMeanMillis();
+    double getP50Millis();
+    double getP99Millis();
+    double getP999Millis();
+    double getMaxMillis();
+    void reset();
+}
@@ -0,0 +1,39 @@
+package elastic.infra;
+
+import elastic.model.LocalDateConverter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Names and bucket boundaries of the statistics searches, shared by every repository implementation.
+ * Birth dates are indexed as epoch days, so each birth year becomes a range of days.
+ */
+final class PersonAggregations {
+
+    static final String CREDIT_LIMIT = "credit_limit";
+    static final String BIRTH_YEARS = "birth_years";
+    static final int MAX_YEARS = 1000;
+
+    private PersonAggregations() {
+    }
+
+    static List<YearRange> yearRanges(int fromYear, int toYear) {
+        if (fromYear > toYear || toYear - fromYear >= MAX_YEARS) {
+            throw new IllegalArgumentException("Year range must be ordered and span at most " + MAX_YEARS + " years!");
+        }
+        return IntStream.rangeClosed(fromYear, toYear)
+                .mapToObj(year -> new YearRange(year,
+                        LocalDateConverter.toInt(LocalDate.of(year, 1, 1)),
+                        LocalDateConverter.toInt(LocalDate.of(year + 1, 1, 1))))
+                .toList();
+    }
+
+    record YearRange(int year, int fromDay, int toDay) {
+
+        String key() {
+            return String.valueOf(year);
+        }
+    }
+}
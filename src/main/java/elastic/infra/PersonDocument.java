@@ -1,14 +1,15 @@
 package elastic.infra;
 
 import elastic.model.LocalDateConverter;
+import elastic.model.MoneyConverter;
 import elastic.model.Person;
-
-import java.math.BigDecimal;
+import elastic.model.PersonField;
+import elastic.model.PersonProjection;
 
 public class PersonDocument {
     private String name;
     private Integer birthDate;
-    private BigDecimal creditLimit;
+    private Long creditLimitCents;
     private Boolean customer;
 
     public PersonDocument() {
@@ -17,18 +18,36 @@ public class PersonDocument {
     private PersonDocument(Person person) {
         this.name = person.name();
         this.birthDate = LocalDateConverter.toInt(person.birthDate());
-        this.creditLimit = person.creditLimit();
+        this.creditLimitCents = MoneyConverter.toCents(person.creditLimit());
         this.customer = person.isCustomer();
     }
 
     public Person toPerson(String id) {
-        return new Person(id, name, LocalDateConverter.fromInt(birthDate), creditLimit, customer);
+        return new Person(id, name, LocalDateConverter.fromInt(birthDate),
+                MoneyConverter.fromCents(creditLimitCents), customer);
     }
 
     public static PersonDocument of(Person person) {
         return new PersonDocument(person);
     }
 
+    public static PersonProjection projection(String id, PersonDocument document) {
+        if (document == null) {
+            return new PersonProjection(id, null, null, null, null);
+        }
+        return new PersonProjection(id, document.name, LocalDateConverter.fromInt(document.birthDate),
+                MoneyConverter.fromCents(document.creditLimitCents), document.customer);
+    }
+
+    public static String fieldName(PersonField field) {
+        return switch (field) {
+            case NAME -> "name";
+            case BIRTH_DATE -> "birthDate";
+            case CREDIT_LIMIT -> "creditLimitCents";
+            case CUSTOMER -> "customer";
+        };
+    }
+
     public String getName() {
         return name;
     }
@@ -37,8 +56,8 @@ public class PersonDocument {
         return birthDate;
     }
 
-    public BigDecimal getCreditLimit() {
-        return creditLimit;
+    public Long getCreditLimitCents() {
+        return creditLimitCents;
     }
 
     public Boolean getCustomer() {
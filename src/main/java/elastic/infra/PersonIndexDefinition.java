@@ -0,0 +1,63 @@
+package elastic.infra;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mapping and settings of the persons index, shared by every repository implementation.
+ * The mapping is strict so a stray field fails the write instead of growing the mapping.
+ */
+public final class PersonIndexDefinition {
+
+    /**
+     * Painless script for {@code _reindex} from an index with the former decimal {@code creditLimit} field.
+     * Converts exactly like {@code MoneyConverter.toCents}: a sub-cent amount fails the task instead of
+     * being rounded.
+     */
+    public static final String CREDIT_LIMIT_CENTS_MIGRATION = """
+            if (ctx._source.containsKey('creditLimit')) {
+              def limit = ctx._source.remove('creditLimit');
+              if (limit != null) {
+                ctx._source.creditLimitCents = new BigDecimal(limit.toString()).movePointRight(2).longValueExact();
+              }
+            }""";
+
+    private static final Serializer SERIALIZER = new Serializer();
+
+    private PersonIndexDefinition() {
+    }
+
+    public static Map<String, Object> of(IndexSettings settings) {
+        var definition = new LinkedHashMap<String, Object>();
+        definition.put("settings", settings(settings));
+        definition.put("mappings", mappings());
+        return definition;
+    }
+
+    public static byte[] json(IndexSettings settings) {
+        return SERIALIZER.toJsonBytes(of(settings));
+    }
+
+    private static Map<String, Object> settings(IndexSettings settings) {
+        return Map.of("index", Map.of(
+                "number_of_shards", settings.shards(),
+                "number_of_replicas", settings.replicas(),
+                "refresh_interval", settings.refreshIntervalParam()));
+    }
+
+    private static Map<String, Object> mappings() {
+        var properties = new LinkedHashMap<String, Object>();
+        // Full-text only: no keyword sub-field, nothing sorts or aggregates on the name.
+        properties.put("name", Map.of("type", "text"));
+        // Days since 1970-01-01 (LocalDateConverter); doc values kept for range aggregations.
+        properties.put("birthDate", Map.of("type", "integer"));
+        // Whole cents (MoneyConverter): exact range queries and stats without floating point.
+        properties.put("creditLimitCents", Map.of("type", "long"));
+        // Only ever used as a filter, so no doc values.
+        properties.put("customer", Map.of("type", "boolean", "doc_values", false));
+        var mappings = new LinkedHashMap<String, Object>();
+        mappings.put("dynamic", "strict");
+        mappings.put("properties", properties);
+        return mappings;
+    }
+}
@@ -0,0 +1,14 @@
+package elastic.infra;
+
+import java.util.List;
+
+public record PitCursor<V>(String pitId, List<V> searchAfter) {
+
+    public PitCursor {
+        searchAfter = searchAfter == null ? List.of() : List.copyOf(searchAfter);
+    }
+
+    public static <V> PitCursor<V> start(String pitId) {
+        return new PitCursor<>(pitId, List.of());
+    }
+}
@@ -0,0 +1,166 @@
+package elastic.infra;
+
+import elastic.model.RefreshPolicy;
+
+import java.time.Duration;
+import java.util.Objects;
+
+public class RepositoryOptions {
+
+    private final BulkLimits bulkLimits;
+    private final int pageSize;
+    private final Duration pointInTimeKeepAlive;
+    private final int multiGetChunkSize;
+    private final RefreshPolicy refreshPolicy;
+    private final IndexSettings indexSettings;
+    private final int trackTotalHitsUpTo;
+    private final WireFormat wireFormat;
+    private final CompressionSettings compression;
+    private final NodeSettings nodes;
+
+    private RepositoryOptions(Builder builder) {
+        this.bulkLimits = builder.bulkLimits;
+        this.pageSize = builder.pageSize;
+        this.pointInTimeKeepAlive = builder.pointInTimeKeepAlive;
+        this.multiGetChunkSize = builder.multiGetChunkSize;
+        this.refreshPolicy = builder.refreshPolicy;
+        this.indexSettings = builder.indexSettings;
+        this.trackTotalHitsUpTo = builder.trackTotalHitsUpTo;
+        this.wireFormat = builder.wireFormat;
+        this.compression = builder.compression;
+        this.nodes = builder.nodes;
+    }
+
+    public static RepositoryOptions defaults() {
+        return new Builder().build();
+    }
+
+    public BulkLimits bulkLimits() {
+        return bulkLimits;
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    public Duration pointInTimeKeepAlive() {
+        return pointInTimeKeepAlive;
+    }
+
+    public String pointInTimeKeepAliveParam() {
+        return pointInTimeKeepAlive.toSeconds() + "s";
+    }
+
+    public int multiGetChunkSize() {
+        return multiGetChunkSize;
+    }
+
+    public RefreshPolicy refreshPolicy() {
+        return refreshPolicy;
+    }
+
+    public IndexSettings indexSettings() {
+        return indexSettings;
+    }
+
+    /**
+     * Limit up to which searches count matching documents exactly; {@code 0} disables counting.
+     */
+    public int trackTotalHitsUpTo() {
+        return trackTotalHitsUpTo;
+    }
+
+    /**
+     * Request and response format of the raw HTTP repository; the Java client only speaks JSON.
+     */
+    public WireFormat wireFormat() {
+        return wireFormat;
+    }
+
+    public CompressionSettings compression() {
+        return compression;
+    }
+
+    public NodeSettings nodes() {
+        return nodes;
+    }
+
+    public static class Builder {
+        private BulkLimits bulkLimits = BulkLimits.DEFAULT;
+        private int pageSize = 1000;
+        private Duration pointInTimeKeepAlive = Duration.ofMinutes(1);
+        private int multiGetChunkSize = 1000;
+        private RefreshPolicy refreshPolicy = RefreshPolicy.NONE;
+        private IndexSettings indexSettings = IndexSettings.DEFAULT;
+        private int trackTotalHitsUpTo = 10_000;
+        private WireFormat wireFormat = WireFormat.JSON;
+        private CompressionSettings compression = CompressionSettings.DISABLED;
+        private NodeSettings nodes = NodeSettings.DEFAULT;
+
+        public Builder bulkLimits(BulkLimits bulkLimits) {
+            this.bulkLimits = Objects.requireNonNull(bulkLimits);
+            return this;
+        }
+
+        public Builder pageSize(int pageSize) {
+            if (pageSize < 1 || pageSize > 10_000) {
+                throw new IllegalArgumentException("Page size must be between 1 and 10000!");
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public Builder pointInTimeKeepAlive(Duration pointInTimeKeepAlive) {
+            if (pointInTimeKeepAlive.toSeconds() < 1) {
+                throw new IllegalArgumentException("Point in time keep alive must be at least one second!");
+            }
+            this.pointInTimeKeepAlive = pointInTimeKeepAlive;
+            return this;
+        }
+
+        public Builder multiGetChunkSize(int multiGetChunkSize) {
+            if (multiGetChunkSize < 1) {
+                throw new IllegalArgumentException("Multi get chunk size must be positive!");
+            }
+            this.multiGetChunkSize = multiGetChunkSize;
+            return this;
+        }
+
+        public Builder refreshPolicy(RefreshPolicy refreshPolicy) {
+            this.refreshPolicy = Objects.requireNonNull(refreshPolicy);
+            return this;
+        }
+
+        public Builder indexSettings(IndexSettings indexSettings) {
+            this.indexSettings = Objects.requireNonNull(indexSettings);
+            return this;
+        }
+
+        public Builder trackTotalHitsUpTo(int trackTotalHitsUpTo) {
+            if (trackTotalHitsUpTo < 0) {
+                throw new IllegalArgumentException("Track total hits limit must not be negative!");
+            }
+            this.trackTotalHitsUpTo = trackTotalHitsUpTo;
+            return this;
+        }
+
+        public Builder wireFormat(WireFormat wireFormat) {
+            this.wireFormat = Objects.requireNonNull(wireFormat);
+            return this;
+        }
+
+        public Builder compression(CompressionSettings compression) {
+            this.compression = Objects.requireNonNull(compression);
+            return this;
+        }
+
+        public Builder nodes(NodeSettings nodes) {
+            this.nodes = Objects.requireNonNull(nodes);
+            return this;
+        }
+
+        public RepositoryOptions build() {
+            return new RepositoryOptions(this);
+        }
+    }
+}
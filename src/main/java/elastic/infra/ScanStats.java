@@ -0,0 +1,22 @@
+package elastic.infra;
+
+import java.time.Duration;
+
+public record ScanStats(long documents, long batches, int slices, Duration elapsed) {
+
+    public double documentsPerSecond() {
+        var nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : documents * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ScanStats {" +
+                "documents=" + documents +
+                ", batches=" + batches +
+                ", slices=" + slices +
+                ", elapsed=" + elapsed +
+                ", documentsPerSecond=" + String.format("%.1f", documentsPerSecond()) +
+                '}';
+    }
+}
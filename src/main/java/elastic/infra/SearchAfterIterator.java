@@ -0,0 +1,67 @@
+package elastic.infra;
+
+import elastic.model.Person;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class SearchAfterIterator<C> implements Iterator<Person> {
+
+    private final PageFetcher<C> fetcher;
+    private final int pageSize;
+    private C cursor;
+    private Iterator<Person> page = Collections.emptyIterator();
+    private boolean lastPage;
+
+    public SearchAfterIterator(C cursor, int pageSize, PageFetcher<C> fetcher) {
+        this.cursor = cursor;
+        this.pageSize = pageSize;
+        this.fetcher = fetcher;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext() && !lastPage) {
+            var next = fetcher.fetch(cursor);
+            cursor = next.cursor();
+            lastPage = next.hits() < pageSize;
+            page = next.persons().iterator();
+        }
+        return page.hasNext();
+    }
+
+    @Override
+    public Person next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+
+    public C cursor() {
+        return cursor;
+    }
+
+    public Stream<Person> stream() {
+        var spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @FunctionalInterface
+    public interface PageFetcher<C> {
+        Page<C> fetch(C cursor);
+    }
+
+    /**
+     * One page of persons; {@code hits} counts every hit returned, including any without a source, so a
+     * skipped hit does not look like the end of the scan.
+     */
+    public record Page<C>(List<Person> persons, int hits, C cursor) {
+    }
+}
@@ -0,0 +1,175 @@
+package elastic.infra;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import elastic.model.Person;
+import elastic.model.PersonBatch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public class SearchResponseReader {
+
+    private final Serializer serializer;
+
+    public SearchResponseReader(Serializer serializer) {
+        this.serializer = serializer;
+    }
+
+    public Summary read(InputStream json, Consumer<Person> consumer) throws IOException {
+        return read(json, WireFormat.JSON, consumer);
+    }
+
+    public Summary read(InputStream content, WireFormat format, Consumer<Person> consumer) throws IOException {
+        return readDocuments(content, format, (id, source) -> {
+            if (source != null) {
+                consumer.accept(source.toPerson(id));
+            }
+        });
+    }
+
+    /**
+     * Emits every hit with its {@code _source}, which is {@code null} when the search did not fetch it.
+     */
+    public Summary readDocuments(InputStream json, BiConsumer<String, PersonDocument> consumer) throws IOException {
+        return readDocuments(json, WireFormat.JSON, consumer);
+    }
+
+    public Summary readDocuments(InputStream content, WireFormat format,
+                                 BiConsumer<String, PersonDocument> consumer) throws IOException {
+        return readResponse(content, format, (parser, summary) -> readHit(parser, summary, consumer));
+    }
+
+    /**
+     * Appends every hit with a {@code _source} to the batch, reading the fields straight from the parser
+     * without a {@link PersonDocument} or {@link Person} per hit. The batch is not cleared first.
+     */
+    public Summary readBatch(InputStream content, WireFormat format, PersonBatch batch) throws IOException {
+        return readResponse(content, format, (parser, summary) -> readBatchHit(parser, summary, batch));
+    }
+
+    private Summary readResponse(InputStream content, WireFormat format, HitReader hitReader) throws IOException {
+        try (var parser = serializer.parser(content, format)) {
+            var summary = new MutableSummary();
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "pit_id" -> summary.pitId = parser.getText();
+                    case "took" -> summary.took = parser.getLongValue();
+                    case "hits" -> readHits(parser, summary, hitReader);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new Summary(summary.hits, summary.pitId, summary.lastSort, summary.took);
+        }
+    }
+
+    private void readHits(JsonParser parser, MutableSummary summary, HitReader hitReader) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            parser.nextToken();
+            if ("hits".equals(field)) {
+                expect(parser.currentToken(), JsonToken.START_ARRAY);
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    hitReader.read(parser, summary);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readHit(JsonParser parser, MutableSummary summary, BiConsumer<String, PersonDocument> consumer) throws IOException {
+        String id = null;
+        PersonDocument source = null;
+        List<Object> sort = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "_id" -> id = parser.getText();
+                case "_source" -> source = serializer.read(parser, PersonDocument.class);
+                case "sort" -> sort = Arrays.asList(serializer.read(parser, Object[].class));
+                default -> parser.skipChildren();
+            }
+        }
+        summary.hits++;
+        if (sort != null) {
+            summary.lastSort = sort;
+        }
+        consumer.accept(id, source);
+    }
+
+    private void readBatchHit(JsonParser parser, MutableSummary summary, PersonBatch batch) throws IOException {
+        var row = batch.addRow();
+        var hasSource = false;
+        List<Object> sort = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "_id" -> batch.setId(row, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                case "_source" -> hasSource = readBatchSource(parser, batch, row);
+                case "sort" -> sort = Arrays.asList(serializer.read(parser, Object[].class));
+                default -> parser.skipChildren();
+            }
+        }
+        summary.hits++;
+        if (sort != null) {
+            summary.lastSort = sort;
+        }
+        if (!hasSource) {
+            batch.removeLastRow();
+        }
+    }
+
+    private static boolean readBatchSource(JsonParser parser, PersonBatch batch, int row) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            if (parser.nextToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "name" -> batch.setName(row, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                case "birthDate" -> batch.setBirthDate(row, parser.getIntValue());
+                case "creditLimitCents" -> batch.setCreditLimitCents(row, parser.getLongValue());
+                case "customer" -> batch.setCustomer(row, parser.getBooleanValue());
+                default -> parser.skipChildren();
+            }
+        }
+        return true;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected search response: expected " + expected + " but found " + actual);
+        }
+    }
+
+    @FunctionalInterface
+    private interface HitReader {
+        void read(JsonParser parser, MutableSummary summary) throws IOException;
+    }
+
+    public record Summary(int hits, String pitId, List<Object> lastSort, Long took) {
+    }
+
+    private static class MutableSummary {
+        private int hits;
+        private String pitId;
+        private List<Object> lastSort = List.of();
+        private Long took;
+    }
+
+}
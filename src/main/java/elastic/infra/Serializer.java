@@ -1,15 +1,28 @@
 package elastic.infra;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.TreeNode;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
 public class Serializer {
 
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    private final ObjectMapper mapper;
 
     public Serializer() {
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        for (var format : WireFormat.values()) {
+            var formatMapper = new ObjectMapper(format.newFactory());
+            formatMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            mappers.put(format, formatMapper);
+        }
+        mapper = mappers.get(WireFormat.JSON);
     }
 
     public String toJson(Object object) {
@@ -20,6 +33,22 @@ public class Serializer {
         }
     }
 
+    public byte[] toJsonBytes(Object object) {
+        try {
+            return mapper.writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            throw new SerializerException(e);
+        }
+    }
+
+    public byte[] toBytes(Object object, WireFormat format) {
+        try {
+            return mappers.get(format).writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            throw new SerializerException(e);
+        }
+    }
+
     public <T> T fromJson(String json, Class<T> clazz) {
         try {
             return mapper.readValue(json, clazz);
@@ -28,6 +57,34 @@ public class Serializer {
         }
     }
 
+    public <T> T fromJson(InputStream json, Class<T> clazz) throws IOException {
+        return mapper.readValue(json, clazz);
+    }
+
+    public <T> T fromBytes(InputStream content, WireFormat format, Class<T> clazz) throws IOException {
+        return mappers.get(format).readValue(content, clazz);
+    }
+
+    public <T> T fromTree(TreeNode tree, Class<T> clazz) {
+        try {
+            return mapper.treeToValue(tree, clazz);
+        } catch (JsonProcessingException e) {
+            throw new SerializerException(e);
+        }
+    }
+
+    public JsonParser parser(InputStream json) throws IOException {
+        return parser(json, WireFormat.JSON);
+    }
+
+    public JsonParser parser(InputStream content, WireFormat format) throws IOException {
+        return mappers.get(format).getFactory().createParser(content);
+    }
+
+    public <T> T read(JsonParser parser, Class<T> clazz) throws IOException {
+        return mapper.readValue(parser, clazz);
+    }
+
     public static final class SerializerException extends RuntimeException {
         public SerializerException(Exception e) {
             super(e);
@@ -0,0 +1,35 @@
+package elastic.infra;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Waits for a task started with {@code wait_for_completion=false} by polling its status, so a long-running
+ * task never holds a request open past the client's socket timeout.
+ */
+final class TaskPoller {
+
+    static final Duration INTERVAL = Duration.ofSeconds(1);
+
+    private TaskPoller() {
+    }
+
+    /**
+     * Calls {@code poll} until it returns a result, waiting {@link #INTERVAL} between calls.
+     */
+    static <T> T await(Supplier<Optional<T>> poll) {
+        while (true) {
+            var result = poll.get();
+            if (result.isPresent()) {
+                return result.get();
+            }
+            try {
+                Thread.sleep(INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for task!", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package elastic.infra;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.util.Locale;
+
+/**
+ * Content type used on the wire. Elasticsearch answers in the format named by the {@code Accept}
+ * header; bulk bodies need a stream separator, which CBOR lacks, so CBOR bulk requests fall back to JSON.
+ */
+public enum WireFormat {
+    JSON("application/json"),
+    SMILE("application/smile"),
+    CBOR("application/cbor");
+
+    private final String mediaType;
+
+    WireFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Format, media type and document separator of bulk bodies sent in this format.
+     */
+    public BulkFormat bulkFormat() {
+        return switch (this) {
+            case JSON, CBOR -> BulkFormat.NDJSON;
+            case SMILE -> BulkFormat.SMILE_STREAM;
+        };
+    }
+
+    JsonFactory newFactory() {
+        return switch (this) {
+            case JSON -> new JsonFactory();
+            case SMILE -> new SmileFactory();
+            case CBOR -> new CBORFactory();
+        };
+    }
+
+    public static WireFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return JSON;
+        }
+        var normalized = contentType.toLowerCase(Locale.ROOT);
+        for (var format : values()) {
+            var suffix = "+" + format.name().toLowerCase(Locale.ROOT);
+            if (normalized.startsWith(format.mediaType) || normalized.contains(suffix)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    public record BulkFormat(WireFormat format, String mediaType, byte separator) {
+        static final BulkFormat NDJSON = new BulkFormat(JSON, "application/x-ndjson", (byte) '\n');
+        static final BulkFormat SMILE_STREAM = new BulkFormat(WireFormat.SMILE, "application/smile", (byte) 0xFF);
+    }
+}
@@ -0,0 +1,140 @@
+package elastic.load;
+
+import elastic.infra.InstrumentedPersonRepository;
+import elastic.infra.OperationMetrics;
+import elastic.model.BulkResult;
+import elastic.model.Person;
+import elastic.model.PersonRepository;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class LoadTest {
+
+    private static final Logger LOGGER = Logger.getLogger(LoadTest.class.getName());
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LoadTestOptions options;
+    private final PrintStream out;
+
+    public LoadTest(LoadTestOptions options, PrintStream out) {
+        this.options = options;
+        this.out = out;
+    }
+
+    public void run() {
+        try (var repository = new InstrumentedPersonRepository(options.implementation().create(options.indexName()))) {
+            repository.createIndex();
+            try {
+                List<String> ids;
+                var bulkLoad = repository.beginBulkLoad();
+                try {
+                    ids = load(repository);
+                } finally {
+                    bulkLoad.close();
+                }
+                printReport("LOAD: " + ids.size() + " persons", repository.snapshotAndReset());
+                runMix(repository, ids);
+                printReport("RUN: " + options.threads() + " threads, " + options.mix(), repository.snapshotAndReset());
+            } finally {
+                if (!options.keepIndex()) {
+                    repository.deleteIndex();
+                }
+            }
+        }
+    }
+
+    private List<String> load(PersonRepository repository) {
+        var generator = new PersonGenerator(options.seed());
+        var ids = new ArrayList<String>(options.persons());
+        for (int loaded = 0; loaded < options.persons(); loaded += LOAD_BATCH_SIZE) {
+            var batch = new ArrayList<Person>(LOAD_BATCH_SIZE);
+            for (int i = loaded; i < Math.min(loaded + LOAD_BATCH_SIZE, options.persons()); i++) {
+                batch.add(generator.next());
+            }
+            repository.saveAll(batch).items().stream()
+                    .filter(BulkResult.Item::succeeded)
+                    .forEach(item -> ids.add(item.id()));
+        }
+        return ids;
+    }
+
+    private void runMix(PersonRepository repository, List<String> ids) {
+        var deadline = System.nanoTime() + options.duration().toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        try {
+            var workers = new ArrayList<Future<?>>(options.threads());
+            for (int worker = 1; worker <= options.threads(); worker++) {
+                var seed = options.seed() + worker;
+                workers.add(executor.submit(() -> work(repository, ids, seed, deadline)));
+            }
+            for (var worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load test interrupted!", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Load test worker failed!", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void work(PersonRepository repository, List<String> ids, long seed, long deadline) {
+        var random = new SplittableRandom(seed);
+        var generator = new PersonGenerator(seed);
+        var mix = options.mix();
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            try {
+                switch (mix.pick(random.nextInt(mix.total()))) {
+                    case READ -> {
+                        if (ids.isEmpty()) {
+                            repository.save(generator.next());
+                        } else {
+                            repository.get(ids.get(random.nextInt(ids.size())));
+                        }
+                    }
+                    case WRITE -> repository.save(generator.next());
+                    case QUERY -> {
+                        if (random.nextBoolean()) {
+                            repository.queryByName(generator.nextLastName());
+                        } else {
+                            var min = generator.nextCreditLimit();
+                            repository.queryByCreditLimit(min, min.add(min));
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "Load test operation failed", e);
+            }
+        }
+    }
+
+    private void printReport(String caption, Map<String, OperationMetrics.Interval> intervals) {
+        out.println("--- " + caption + " ---");
+        out.printf("%-20s %10s %8s %12s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "ops/s", "mean ms", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        intervals.forEach((operation, interval) -> {
+            var latency = interval.latency();
+            if (latency.count() > 0 || interval.errors() > 0) {
+                out.printf("%-20s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                        operation, latency.count(), interval.errors(), interval.throughputPerSecond(),
+                        latency.meanNanos() / NANOS_PER_MILLI, latency.p50Nanos() / NANOS_PER_MILLI,
+                        latency.p99Nanos() / NANOS_PER_MILLI, latency.p999Nanos() / NANOS_PER_MILLI,
+                        latency.maxNanos() / NANOS_PER_MILLI);
+            }
+        });
+        out.println();
+    }
+}
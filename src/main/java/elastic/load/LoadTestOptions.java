@@ -0,0 +1,112 @@
+package elastic.load;
+
+import elastic.infra.ElasticClientJsonPersonRepository;
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.model.PersonRepository;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Function;
+
+public record LoadTestOptions(
+        Implementation implementation,
+        String indexName,
+        int persons,
+        long seed,
+        int threads,
+        OperationMix mix,
+        Duration duration,
+        boolean keepIndex) {
+
+    public static final String USAGE = """
+            Usage: App --load-test [options]
+              --repository=http-json|client-json|client   PersonRepository implementation (default http-json)
+              --index=<name>                              index used by the test (default persons-load)
+              --persons=<n>                               synthetic persons bulk loaded first (default 10000)
+              --seed=<n>                                  seed of the person generator (default 42)
+              --threads=<n>                               concurrent workers (default 16)
+              --mix=read:<w>,write:<w>,query:<w>          weights of each operation (default read:70,write:20,query:10)
+              --duration=<n>[ms|s|m]                      length of the measured phase (default 60s)
+              --keep-index                                do not delete the index at the end""";
+
+    public LoadTestOptions {
+        if (persons < 0 || threads < 1 || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("persons must be >= 0, threads >= 1 and duration positive!");
+        }
+    }
+
+    /**
+     * Whether the command line asks for the load test; other arguments only make sense with it.
+     */
+    public static boolean requested(String... args) {
+        return Arrays.asList(args).contains("--load-test");
+    }
+
+    public static LoadTestOptions parse(String... args) {
+        var implementation = Implementation.HTTP_CLIENT_JSON;
+        var indexName = "persons-load";
+        var persons = 10_000;
+        var seed = 42L;
+        var threads = 16;
+        var mix = OperationMix.DEFAULT;
+        var duration = Duration.ofSeconds(60);
+        var keepIndex = false;
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            var name = separator < 0 ? arg : arg.substring(0, separator);
+            var value = separator < 0 ? "" : arg.substring(separator + 1);
+            switch (name) {
+                case "--load-test" -> { }
+                case "--repository" -> implementation = Implementation.of(value);
+                case "--index" -> indexName = value;
+                case "--persons" -> persons = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--mix" -> mix = OperationMix.parse(value);
+                case "--duration" -> duration = parseDuration(value);
+                case "--keep-index" -> keepIndex = true;
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return new LoadTestOptions(implementation, indexName, persons, seed, threads, mix, duration, keepIndex);
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    public enum Implementation {
+        HTTP_CLIENT_JSON("http-json", HttpClientJsonPersonRepository::new),
+        ELASTIC_CLIENT_JSON("client-json", ElasticClientJsonPersonRepository::new),
+        ELASTIC_CLIENT("client", ElasticClientPersonRepository::new);
+
+        private final String option;
+        private final Function<String, PersonRepository> factory;
+
+        Implementation(String option, Function<String, PersonRepository> factory) {
+            this.option = option;
+            this.factory = factory;
+        }
+
+        public PersonRepository create(String indexName) {
+            return factory.apply(indexName);
+        }
+
+        static Implementation of(String option) {
+            return Arrays.stream(values())
+                    .filter(implementation -> implementation.option.equals(option))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown repository: " + option));
+        }
+    }
+}
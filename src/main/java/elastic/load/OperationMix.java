@@ -0,0 +1,52 @@
+package elastic.load;
+
+public record OperationMix(int reads, int writes, int queries) {
+
+    public static final OperationMix DEFAULT = new OperationMix(70, 20, 10);
+
+    public OperationMix {
+        if (reads < 0 || writes < 0 || queries < 0 || reads + writes + queries == 0) {
+            throw new IllegalArgumentException("Operation mix weights must be non-negative and not all zero!");
+        }
+    }
+
+    public static OperationMix parse(String mix) {
+        int reads = 0;
+        int writes = 0;
+        int queries = 0;
+        for (var part : mix.split(",")) {
+            var weight = part.split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Invalid operation mix: " + mix);
+            }
+            var value = Integer.parseInt(weight[1].trim());
+            switch (weight[0].trim()) {
+                case "read" -> reads = value;
+                case "write" -> writes = value;
+                case "query" -> queries = value;
+                default -> throw new IllegalArgumentException("Unknown operation in mix: " + weight[0]);
+            }
+        }
+        return new OperationMix(reads, writes, queries);
+    }
+
+    public int total() {
+        return reads + writes + queries;
+    }
+
+    public Operation pick(int roll) {
+        if (roll < reads) {
+            return Operation.READ;
+        }
+        return roll < reads + writes ? Operation.WRITE : Operation.QUERY;
+    }
+
+    @Override
+    public String toString() {
+        return "read:" + reads + ",write:" + writes + ",query:" + queries;
+    }
+
+    public enum Operation {
+        READ, WRITE, QUERY
+    }
+}
@@ -0,0 +1,42 @@
+package elastic.load;
+
+import elastic.model.Person;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+public class PersonGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Arthur", "Beatrice", "Bruno", "Carla", "Daniel", "Emma", "Felix", "Gabriel", "Helena",
+            "Hilary", "Isaac", "Julia", "John", "Joseph", "Laura", "Lucas", "Maria", "Noah", "Olivia",
+            "Paul", "Rachel", "Samuel", "Sophia", "Thomas", "Valentina", "William", "Yara"};
+    private static final String[] LAST_NAMES = {
+            "Almeida", "Brown", "Costa", "Davis", "Evans", "Ferreira", "Garcia", "Guimaraes", "Johnson", "Jones",
+            "Lopez", "Martins", "Miller", "Moore", "Oliveira", "Pereira", "Rodrigues", "Santos", "Silva", "Smith",
+            "Souza", "Taylor", "Thompson", "Wilson"};
+    private static final LocalDate OLDEST_BIRTH_DATE = LocalDate.of(1940, 1, 1);
+    private static final int BIRTH_DATE_RANGE_DAYS = 65 * 365;
+    private static final long MAX_CREDIT_LIMIT_CENTS = 10_000_00;
+
+    private final SplittableRandom random;
+
+    public PersonGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public Person next() {
+        var name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + nextLastName();
+        var birthDate = OLDEST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATE_RANGE_DAYS));
+        return new Person(name, birthDate, nextCreditLimit(), random.nextBoolean());
+    }
+
+    public String nextLastName() {
+        return LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    public BigDecimal nextCreditLimit() {
+        return BigDecimal.valueOf(random.nextLong(MAX_CREDIT_LIMIT_CENTS + 1), 2);
+    }
+}
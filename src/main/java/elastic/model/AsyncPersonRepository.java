@@ -0,0 +1,14 @@
+package elastic.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncPersonRepository {
+    CompletableFuture<Void> saveAsync(Person person);
+    CompletableFuture<Optional<Person>> getAsync(String id);
+    CompletableFuture<List<Person>> getAllAsync(boolean onlyCustomers);
+    CompletableFuture<List<Person>> queryByNameAsync(String name);
+    CompletableFuture<List<Person>> queryByCreditLimitAsync(BigDecimal minValue, BigDecimal maxValue);
+}
@@ -0,0 +1,13 @@
+package elastic.model;
+
+import java.util.function.Consumer;
+
+public interface BatchPersonRepository {
+
+    /**
+     * Pages through the whole index with a point in time, decoding every page into {@code batch}.
+     * The batch is cleared before each page and reused, so the consumer must copy what it keeps.
+     * Returns the number of persons scanned.
+     */
+    long scanAll(boolean onlyCustomers, PersonBatch batch, Consumer<PersonBatch> pageConsumer);
+}
@@ -0,0 +1,4 @@
+package elastic.model;
+
+public record BirthYearBucket(int year, long count, CreditLimitStats creditLimit) {
+}
@@ -0,0 +1,11 @@
+package elastic.model;
+
+/**
+ * Ingestion window opened by {@link PersonRepository#beginBulkLoad(int)}. Closing it restores
+ * the index settings, refreshes and, if requested, force-merges the index.
+ */
+public interface BulkLoad extends AutoCloseable {
+
+    @Override
+    void close();
+}
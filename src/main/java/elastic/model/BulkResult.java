@@ -0,0 +1,39 @@
+package elastic.model;
+
+import java.util.List;
+
+public record BulkResult(List<Item> items) {
+
+    public BulkResult {
+        items = List.copyOf(items);
+    }
+
+    public List<Item> failures() {
+        return items.stream()
+                .filter(item -> !item.succeeded())
+                .toList();
+    }
+
+    public boolean hasFailures() {
+        return items.stream().anyMatch(item -> !item.succeeded());
+    }
+
+    public long successCount() {
+        return items.stream().filter(Item::succeeded).count();
+    }
+
+    public record Item(Person person, String id, int status, String error) {
+
+        public static Item success(Person person, String id, int status) {
+            return new Item(person, id, status, null);
+        }
+
+        public static Item failure(Person person, int status, String error) {
+            return new Item(person, person.id(), status, error);
+        }
+
+        public boolean succeeded() {
+            return error == null;
+        }
+    }
+}
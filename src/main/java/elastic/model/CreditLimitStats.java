@@ -0,0 +1,23 @@
+package elastic.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record CreditLimitStats(long count, BigDecimal min, BigDecimal max, BigDecimal average, BigDecimal sum) {
+
+    public static final CreditLimitStats EMPTY = new CreditLimitStats(0, null, null, null, BigDecimal.ZERO);
+
+    /**
+     * Builds the stats from aggregations over the indexed cents.
+     */
+    public static CreditLimitStats ofCents(long count, double min, double max, double average, double sum) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        return new CreditLimitStats(count, fromCents(min), fromCents(max), fromCents(average), fromCents(sum));
+    }
+
+    private static BigDecimal fromCents(double value) {
+        return BigDecimal.valueOf(value).movePointLeft(2).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,39 @@
+package elastic.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Credit limits travel and are indexed as whole cents, so decoding reads a plain long instead of
+ * parsing an arbitrary-precision number.
+ */
+public class MoneyConverter {
+
+    private static final int CENTS_SCALE = 2;
+
+    private MoneyConverter() {
+    }
+
+    public static Long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        try {
+            return amount.movePointRight(CENTS_SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Cannot convert the amount '" + amount + "' to cents.");
+        }
+    }
+
+    /**
+     * Converts a query bound, rounding sub-cent amounts in the given direction.
+     */
+    public static long toCents(BigDecimal amount, RoundingMode roundingMode) {
+        return toCents(amount.setScale(CENTS_SCALE, roundingMode));
+    }
+
+    public static BigDecimal fromCents(Long cents) {
+        return cents == null ? null : BigDecimal.valueOf(cents, CENTS_SCALE);
+    }
+
+}
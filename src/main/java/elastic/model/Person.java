@@ -51,10 +51,14 @@ public class Person {
         this.creditLimit = validateCreditLimit(creditLimit);
     }
 
+    // Whole cents only, the unit the index stores (MoneyConverter).
     private BigDecimal validateCreditLimit(BigDecimal creditLimit) {
         if (creditLimit != null && creditLimit.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Credit limit cannot be negative!");
         }
+        if (creditLimit != null && creditLimit.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Credit limit cannot have fractions of a cent!");
+        }
         return creditLimit;
     }
 
@@ -73,10 +77,15 @@ public class Person {
         return Objects.equals(id, person.id)
                 && Objects.equals(name, person.name)
                 && Objects.equals(birthDate, person.birthDate)
-                && Objects.equals(creditLimit, person.creditLimit)
+                && sameAmount(creditLimit, person.creditLimit)
                 && Objects.equals(customer, person.customer);
     }
 
+    // 1234.5 and 1234.50 are the same limit; stored limits come back at cent scale.
+    private static boolean sameAmount(BigDecimal amount, BigDecimal other) {
+        return amount == null ? other == null : other != null && amount.compareTo(other) == 0;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(name, birthDate, customer);
@@ -0,0 +1,250 @@
+package elastic.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Columnar page of persons for large scans: birth dates as epoch days ({@link LocalDateConverter}),
+ * credit limits as cents ({@link MoneyConverter}), customer flags in a bit set, and ids and names
+ * packed into shared char arrays. Search responses are decoded straight into it, and {@link #clear()}
+ * keeps every array, so a batch reused across pages stops allocating once it has grown to the page size.
+ */
+public final class PersonBatch {
+
+    private final TextColumn ids;
+    private final TextColumn names;
+    private int[] birthDates;
+    private long[] creditLimitCents;
+    private final BitSet hasBirthDate = new BitSet();
+    private final BitSet hasCreditLimit = new BitSet();
+    private final BitSet customers = new BitSet();
+    private int size;
+
+    public PersonBatch() {
+        this(1_000);
+    }
+
+    public PersonBatch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive!");
+        }
+        ids = new TextColumn(capacity, 20);
+        names = new TextColumn(capacity, 24);
+        birthDates = new int[capacity];
+        creditLimitCents = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+        ids.clear();
+        names.clear();
+        hasBirthDate.clear();
+        hasCreditLimit.clear();
+        customers.clear();
+    }
+
+    /**
+     * Appends a row with every column absent and returns its index for the setters.
+     */
+    public int addRow() {
+        if (size == birthDates.length) {
+            var capacity = size * 2;
+            birthDates = Arrays.copyOf(birthDates, capacity);
+            creditLimitCents = Arrays.copyOf(creditLimitCents, capacity);
+        }
+        ids.addRow();
+        names.addRow();
+        return size++;
+    }
+
+    /**
+     * Drops the last row, e.g. a hit that turned out to have no {@code _source}.
+     */
+    public void removeLastRow() {
+        if (size == 0) {
+            throw new IllegalStateException("Batch is empty!");
+        }
+        size--;
+        ids.removeLastRow();
+        names.removeLastRow();
+        hasBirthDate.clear(size);
+        hasCreditLimit.clear(size);
+        customers.clear(size);
+    }
+
+    public int add(Person person) {
+        var row = addRow();
+        if (person.id() != null) {
+            setId(row, person.id());
+        }
+        if (person.name() != null) {
+            setName(row, person.name());
+        }
+        if (person.birthDate() != null) {
+            setBirthDate(row, LocalDateConverter.toInt(person.birthDate()));
+        }
+        if (person.creditLimit() != null) {
+            setCreditLimitCents(row, MoneyConverter.toCents(person.creditLimit()));
+        }
+        setCustomer(row, person.isCustomer());
+        return row;
+    }
+
+    public void setId(int row, String id) {
+        ids.set(checkLastRow(row), id);
+    }
+
+    public void setId(int row, char[] chars, int offset, int length) {
+        ids.set(checkLastRow(row), chars, offset, length);
+    }
+
+    public void setName(int row, String name) {
+        names.set(checkLastRow(row), name);
+    }
+
+    public void setName(int row, char[] chars, int offset, int length) {
+        names.set(checkLastRow(row), chars, offset, length);
+    }
+
+    public void setBirthDate(int row, int epochDay) {
+        birthDates[checkRow(row)] = epochDay;
+        hasBirthDate.set(row);
+    }
+
+    public void setCreditLimitCents(int row, long cents) {
+        creditLimitCents[checkRow(row)] = cents;
+        hasCreditLimit.set(row);
+    }
+
+    public void setCustomer(int row, boolean customer) {
+        customers.set(checkRow(row), customer);
+    }
+
+    public String id(int row) {
+        return ids.get(checkRow(row));
+    }
+
+    public String name(int row) {
+        return names.get(checkRow(row));
+    }
+
+    public boolean hasBirthDate(int row) {
+        return hasBirthDate.get(checkRow(row));
+    }
+
+    /**
+     * Days since 1970-01-01; only meaningful when {@link #hasBirthDate(int)}.
+     */
+    public int birthDate(int row) {
+        return birthDates[checkRow(row)];
+    }
+
+    public boolean hasCreditLimit(int row) {
+        return hasCreditLimit.get(checkRow(row));
+    }
+
+    /**
+     * Only meaningful when {@link #hasCreditLimit(int)}.
+     */
+    public long creditLimitCents(int row) {
+        return creditLimitCents[checkRow(row)];
+    }
+
+    public boolean isCustomer(int row) {
+        return customers.get(checkRow(row));
+    }
+
+    public int customerCount() {
+        return customers.cardinality();
+    }
+
+    public Person toPerson(int row) {
+        return new Person(id(row), name(row),
+                hasBirthDate(row) ? LocalDateConverter.fromInt(birthDates[row]) : null,
+                hasCreditLimit(row) ? MoneyConverter.fromCents(creditLimitCents[row]) : null,
+                isCustomer(row));
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for batch size " + size);
+        }
+        return row;
+    }
+
+    // Text is appended to the shared char array, so only the row being filled can be set.
+    private int checkLastRow(int row) {
+        if (row != size - 1) {
+            throw new IllegalArgumentException("Only the last added row can be set!");
+        }
+        return row;
+    }
+
+    private static final class TextColumn {
+        private static final int ABSENT = -1;
+
+        private char[] chars;
+        private int used;
+        private int[] starts;
+        private int[] lengths;
+        private int rows;
+
+        TextColumn(int capacity, int charsPerRow) {
+            chars = new char[capacity * charsPerRow];
+            starts = new int[capacity];
+            lengths = new int[capacity];
+        }
+
+        void clear() {
+            used = 0;
+            rows = 0;
+        }
+
+        void addRow() {
+            if (rows == starts.length) {
+                starts = Arrays.copyOf(starts, rows * 2);
+                lengths = Arrays.copyOf(lengths, rows * 2);
+            }
+            starts[rows] = used;
+            lengths[rows] = ABSENT;
+            rows++;
+        }
+
+        void removeLastRow() {
+            rows--;
+            used = starts[rows];
+        }
+
+        void set(int row, String text) {
+            reserve(row, text.length());
+            text.getChars(0, text.length(), chars, used);
+            used += text.length();
+        }
+
+        void set(int row, char[] source, int offset, int length) {
+            reserve(row, length);
+            System.arraycopy(source, offset, chars, used, length);
+            used += length;
+        }
+
+        private void reserve(int row, int length) {
+            used = starts[row];
+            if (used + length > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, used + length));
+            }
+            lengths[row] = length;
+        }
+
+        String get(int row) {
+            return lengths[row] == ABSENT ? null : new String(chars, starts[row], lengths[row]);
+        }
+    }
+}
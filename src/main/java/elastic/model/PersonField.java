@@ -0,0 +1,8 @@
+package elastic.model;
+
+public enum PersonField {
+    NAME,
+    BIRTH_DATE,
+    CREDIT_LIMIT,
+    CUSTOMER
+}
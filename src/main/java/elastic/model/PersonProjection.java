@@ -0,0 +1,10 @@
+package elastic.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Subset of a person returned by projection queries; fields that were not requested are {@code null}.
+ */
+public record PersonProjection(String id, String name, LocalDate birthDate, BigDecimal creditLimit, Boolean customer) {
+}
@@ -1,15 +1,67 @@
 package elastic.model;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface PersonRepository {
+public interface PersonRepository extends AutoCloseable {
     void save(Person person);
+    void save(Person person, RefreshPolicy refreshPolicy);
+    BulkResult saveAll(Collection<Person> persons);
+    BulkResult saveAll(Collection<Person> persons, RefreshPolicy refreshPolicy);
     Optional<Person> get(String id);
+    Map<String, Person> getMany(Collection<String> ids);
     List<Person> getAll(boolean onlyCustomers);
+
+    /**
+     * Projection variants fetch only the given fields from {@code _source}; an empty set fetches IDs only.
+     */
+    List<PersonProjection> getAll(boolean onlyCustomers, Set<PersonField> fields);
+
+    /**
+     * Pages through the whole index with a point in time, holding one page in memory at a time.
+     * The point in time is released when the stream is closed, so use it in a try-with-resources.
+     */
+    Stream<Person> streamAll(boolean onlyCustomers);
+
     List<Person> queryByName(String name);
+    List<PersonProjection> queryByName(String name, Set<PersonField> fields);
     List<Person> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue);
+    List<PersonProjection> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue, Set<PersonField> fields);
+
+    /**
+     * Statistics are computed by Elasticsearch with {@code size=0} searches; no document is fetched.
+     */
+    long count(boolean onlyCustomers);
+    CreditLimitStats creditLimitStats(boolean onlyCustomers);
+    List<BirthYearBucket> histogramByBirthYear(int fromYear, int toYear, boolean onlyCustomers);
+
+    void refresh();
+
+    /**
+     * Disables periodic refresh and replicas until the returned handle is closed, then restores them,
+     * refreshes and force-merges down to {@code maxNumSegments} segments (0 skips the force merge).
+     */
+    BulkLoad beginBulkLoad(int maxNumSegments);
+
+    default BulkLoad beginBulkLoad() {
+        return beginBulkLoad(0);
+    }
+
     void createIndex();
     void deleteIndex();
+
+    /**
+     * Copies every document of {@code sourceIndex} into this index, converting the former decimal
+     * credit limit to cents on the way, and returns the number of documents copied. Creates this index
+     * with its mapping first if it does not exist, and waits for the reindex task however long it runs.
+     */
+    long reindexFrom(String sourceIndex);
+
+    @Override
+    void close();
 }
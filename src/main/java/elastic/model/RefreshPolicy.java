@@ -0,0 +1,13 @@
+package elastic.model;
+
+/**
+ * When a write becomes visible to searches. Gets by ID are real-time and see writes under any policy.
+ */
+public enum RefreshPolicy {
+    /** Return immediately; the write is searchable after the next periodic refresh. */
+    NONE,
+    /** Return once a refresh has made the write searchable, without forcing one. */
+    WAIT_FOR,
+    /** Force a refresh of the affected shards before returning; expensive under load. */
+    IMMEDIATE
+}
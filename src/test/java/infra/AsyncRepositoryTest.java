@@ -0,0 +1,128 @@
+package infra;
+
+import elastic.infra.ElasticClientJsonPersonRepository;
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.AsyncPersonRepository;
+import elastic.model.Person;
+import elastic.model.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Async operations of every repository against a stub holding the single person "id1".
+ */
+public class AsyncRepositoryTest {
+
+    private static final String SOURCE =
+            "{\"name\":\"Anna\",\"birthDate\":3653,\"creditLimitCents\":150050,\"customer\":true}";
+
+    private StubElasticServer server;
+    private PersonRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        server.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void saveAndInitializeGeneratedId(String implementation) throws Exception {
+        var async = start(implementation);
+        var person = new Person("Bob", LocalDate.of(1980, 1, 1), new BigDecimal("10.50"), false);
+
+        async.saveAsync(person).get();
+
+        assertThat(person.id(), is("gen-1"));
+        var request = server.requests().get(0);
+        assertThat(request.is("POST", "/persons/_doc"), is(true));
+        assertThat(request.body(), allOf(
+                containsString("\"name\":\"Bob\""), containsString("\"creditLimitCents\":1050")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void getFoundAndMissingPerson(String implementation) throws Exception {
+        var async = start(implementation);
+
+        var found = async.getAsync("id1").get().orElseThrow();
+        var missing = async.getAsync("unknown").get();
+
+        assertThat(found.id(), is("id1"));
+        assertThat(found.name(), is("Anna"));
+        assertThat(found.birthDate(), is(LocalDate.of(1980, 1, 2)));
+        assertThat(found.creditLimit(), is(new BigDecimal("1500.50")));
+        assertThat(missing, is(Optional.empty()));
+        assertThat(server.requests().get(0).is("GET", "/persons/_doc/id1"), is(true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void searchByName(String implementation) throws Exception {
+        var async = start(implementation);
+
+        var persons = async.queryByNameAsync("Anna").get();
+
+        assertThat(persons.stream().map(Person::id).toList(), contains("id1"));
+        var request = server.requests().get(0);
+        assertThat(request.is("POST", "/persons/_search"), is(true));
+        assertThat(request.body(), containsString("\"match\":{\"name\":"));
+        assertThat(request.body(), containsString("Anna"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void completeExceptionallyOnServerError(String implementation) throws IOException {
+        var async = start(implementation);
+
+        assertThrows(ExecutionException.class, () -> async.getAllAsync(false).get());
+    }
+
+    private AsyncPersonRepository start(String implementation) throws IOException {
+        server = new StubElasticServer(AsyncRepositoryTest::respond);
+        var options = new RepositoryOptions.Builder().nodes(NodeSettings.of(server.url())).build();
+        repository = switch (implementation) {
+            case "http" -> new HttpClientJsonPersonRepository("persons", options);
+            case "client" -> new ElasticClientPersonRepository("persons", options);
+            default -> new ElasticClientJsonPersonRepository("persons", options);
+        };
+        return (AsyncPersonRepository) repository;
+    }
+
+    private static StubElasticServer.Response respond(StubElasticServer.Request request) {
+        if (request.is("POST", "/persons/_doc")) {
+            return StubElasticServer.Response.ok("{\"_index\":\"persons\",\"_id\":\"gen-1\",\"_version\":1,"
+                    + "\"result\":\"created\",\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},"
+                    + "\"_seq_no\":0,\"_primary_term\":1}");
+        }
+        if (request.is("GET", "/persons/_doc/id1")) {
+            return StubElasticServer.Response.ok("{\"_index\":\"persons\",\"_id\":\"id1\",\"_version\":1,"
+                    + "\"_seq_no\":0,\"_primary_term\":1,\"found\":true,\"_source\":" + SOURCE + "}");
+        }
+        if (request.method().equals("GET")) {
+            return new StubElasticServer.Response(404, "{\"_index\":\"persons\",\"_id\":\"unknown\",\"found\":false}");
+        }
+        if (request.body().contains("\"match\"")) {
+            return StubElasticServer.Response.ok("{\"took\":1,\"timed_out\":false,"
+                    + "\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},"
+                    + "\"hits\":{\"hits\":[{\"_index\":\"persons\",\"_id\":\"id1\",\"_score\":1.0,"
+                    + "\"_source\":" + SOURCE + "}]}}");
+        }
+        return new StubElasticServer.Response(500, "{\"error\":{\"type\":\"exception\",\"reason\":\"boom\"},"
+                + "\"status\":500}");
+    }
+}
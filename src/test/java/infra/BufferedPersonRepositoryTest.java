@@ -0,0 +1,155 @@
+package infra;
+
+import elastic.infra.BufferSettings;
+import elastic.infra.BufferedPersonRepository;
+import elastic.infra.BulkLimits;
+import elastic.model.BulkResult;
+import elastic.model.Person;
+import elastic.model.RefreshPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BufferedPersonRepositoryTest {
+
+    private final InMemoryPersonRepository delegate = new InMemoryPersonRepository();
+    private final List<String> failures = new CopyOnWriteArrayList<>();
+
+    @Test
+    void flushWhenDocumentLimitIsReached() {
+        try (var repository = bufferedRepository(delegate, Duration.ofHours(1))) {
+            for (int i = 0; i < 5; i++) {
+                repository.save(person("p" + i));
+            }
+            waitUntil(() -> delegate.persons.size() == 4);
+
+            assertThat(delegate.saveAllCalls.get(), is(2));
+            assertThat(delegate.persons.size(), is(4));
+        }
+    }
+
+    @Test
+    void flushOnClose() {
+        var person = person("p1");
+        try (var repository = bufferedRepository(delegate, Duration.ofHours(1))) {
+            repository.save(person);
+            assertThat(delegate.persons.size(), is(0));
+        }
+
+        assertThat(delegate.persons.size(), is(1));
+        assertThat(person.id(), notNullValue());
+    }
+
+    @Test
+    void flushAfterMaxDelay() {
+        try (var repository = bufferedRepository(delegate, Duration.ofMillis(20))) {
+            repository.save(person("p1"));
+
+            waitUntil(() -> delegate.persons.size() == 1);
+        }
+    }
+
+    @Test
+    void flushBufferAndWriteThroughWhenRefreshIsRequested() {
+        try (var repository = bufferedRepository(delegate, Duration.ofHours(1))) {
+            repository.save(person("p1"));
+            repository.save(person("p2"), RefreshPolicy.WAIT_FOR);
+
+            assertThat(delegate.persons.size(), is(2));
+            assertThat(delegate.refreshPolicies, contains(RefreshPolicy.WAIT_FOR));
+
+            repository.save(person("p3"));
+            repository.refresh();
+
+            assertThat(delegate.persons.size(), is(3));
+            assertThat(delegate.refreshCalls.get(), is(1));
+        }
+    }
+
+    @Test
+    void writeBufferedSaveBeforeSaveAllOfSameId() {
+        try (var repository = bufferedRepository(delegate, Duration.ofHours(1))) {
+            repository.save(person("id1", "Anna"));
+            repository.saveAll(List.of(person("id1", "Anna Maria")));
+
+            assertThat(delegate.saveAllCalls.get(), is(2));
+            assertThat(delegate.persons.get("id1").name(), is("Anna Maria"));
+        }
+        assertThat(delegate.persons.get("id1").name(), is("Anna Maria"));
+    }
+
+    @Test
+    void reportFailedDocumentsToListener() {
+        var failing = new InMemoryPersonRepository() {
+            @Override
+            public BulkResult saveAll(Collection<Person> persons) {
+                return new BulkResult(persons.stream()
+                        .map(person -> BulkResult.Item.failure(person, 400, "mapper_parsing_exception"))
+                        .toList());
+            }
+        };
+        try (var repository = bufferedRepository(failing, Duration.ofHours(1))) {
+            repository.save(person("p1"));
+            repository.flush();
+        }
+
+        assertThat(failures, contains("p1: mapper_parsing_exception"));
+    }
+
+    @Test
+    void rejectSaveAfterClose() {
+        var repository = bufferedRepository(delegate, Duration.ofHours(1));
+        repository.close();
+
+        assertThrows(IllegalStateException.class, () -> repository.save(person("p1")));
+    }
+
+    @Test
+    void runFlushesOnDaemonThreads() {
+        try (var repository = bufferedRepository(delegate, Duration.ofMillis(20))) {
+            repository.save(person("p1"));
+            waitUntil(() -> delegate.persons.size() == 1);
+
+            var flushThreads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith("buffered-flush"))
+                    .toList();
+            assertThat(flushThreads, not(empty()));
+            assertThat(flushThreads, everyItem(hasProperty("daemon", is(true))));
+        }
+    }
+
+    private BufferedPersonRepository bufferedRepository(InMemoryPersonRepository delegate, Duration maxDelay) {
+        var settings = new BufferSettings(new BulkLimits(2, Long.MAX_VALUE), maxDelay, 4, 2);
+        return new BufferedPersonRepository(delegate, settings,
+                (person, error) -> failures.add(person.name() + ": " + error));
+    }
+
+    private static Person person(String name) {
+        return person(null, name);
+    }
+
+    private static Person person(String id, String name) {
+        return new Person(id, name, LocalDate.of(1990, 5, 1), BigDecimal.ONE, false);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+}
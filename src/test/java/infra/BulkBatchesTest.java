@@ -0,0 +1,54 @@
+package infra;
+
+import elastic.infra.BulkBatches;
+import elastic.infra.BulkLimits;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BulkBatchesTest {
+
+    @Test
+    void splitByDocumentCount() {
+        var batches = BulkBatches.partition(List.of(1, 2, 3, 4, 5), i -> 1, new BulkLimits(2, 100));
+
+        assertThat(batches, contains(List.of(1, 2), List.of(3, 4), List.of(5)));
+    }
+
+    @Test
+    void splitByBytes() {
+        var batches = BulkBatches.partition(List.of(4, 4, 4, 2), i -> i, new BulkLimits(100, 10));
+
+        assertThat(batches, contains(List.of(4, 4), List.of(4, 2)));
+    }
+
+    @Test
+    void sendOversizedItemAlone() {
+        var batches = BulkBatches.partition(List.of(1, 50, 1), i -> i, new BulkLimits(100, 10));
+
+        assertThat(batches, contains(List.of(1), List.of(50), List.of(1)));
+    }
+
+    @Test
+    void emptyInputHasNoBatches() {
+        assertThat(BulkBatches.partition(List.<Integer>of(), i -> 1, BulkLimits.DEFAULT), empty());
+    }
+
+    @Test
+    void splitIntoFixedSizeChunks() {
+        var chunks = BulkBatches.partition(List.of("a", "b", "c", "d", "e"), 2);
+
+        assertThat(chunks, contains(List.of("a", "b"), List.of("c", "d"), List.of("e")));
+    }
+
+    @Test
+    void rejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new BulkLimits(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new BulkLimits(10, 0));
+    }
+
+}
@@ -0,0 +1,247 @@
+package infra;
+
+import elastic.infra.CacheSettings;
+import elastic.infra.CachingPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.Person;
+import elastic.model.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CachingPersonRepositoryTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(10);
+
+    private final InMemoryPersonRepository delegate = new InMemoryPersonRepository();
+    private final MutableClock clock = new MutableClock();
+    private CachingPersonRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = cachingRepository(100);
+        delegate.save(person("id1", "Anna"));
+        delegate.save(person("id2", "John"));
+    }
+
+    @Test
+    void serveRepeatedGetFromCache() {
+        repository.get("id1");
+        var person = repository.get("id1");
+
+        assertThat(person.orElseThrow().name(), is("Anna"));
+        assertThat(delegate.getCalls.get(), is(1));
+        assertThat(repository.stats().hits(), is(1L));
+        assertThat(repository.stats().misses(), is(1L));
+    }
+
+    @Test
+    void cacheMissesUntilNegativeTimeToLiveExpires() {
+        repository.get("unknown");
+        repository.get("unknown");
+        clock.advance(NEGATIVE_TTL);
+        repository.get("unknown");
+
+        assertThat(delegate.getCalls.get(), is(2));
+    }
+
+    @Test
+    void reloadAfterTimeToLiveExpires() {
+        repository.get("id1");
+        clock.advance(TTL);
+        repository.get("id1");
+
+        assertThat(delegate.getCalls.get(), is(2));
+    }
+
+    @Test
+    void invalidateOnSave() {
+        var person = repository.get("id1").orElseThrow();
+        person.updateCreditLimit(BigDecimal.valueOf(500));
+        repository.save(person);
+
+        assertThat(repository.get("id1").orElseThrow().creditLimit(), is(BigDecimal.valueOf(500)));
+        assertThat(delegate.getCalls.get(), is(2));
+    }
+
+    @Test
+    void invalidateAllOnDeleteIndex() {
+        repository.get("id1");
+        repository.deleteIndex();
+
+        assertThat(repository.get("id1").isPresent(), is(false));
+        assertThat(repository.stats().entries(), is(1));
+    }
+
+    @Test
+    void evictLeastRecentlyUsedEntry() {
+        repository = cachingRepository(2);
+        delegate.save(person("id3", "Mary"));
+        repository.get("id1");
+        repository.get("id2");
+        repository.get("id1");
+        repository.get("id3");
+        repository.get("id1");
+        repository.get("id2");
+
+        assertThat(delegate.getCalls.get(), is(4));
+        assertThat(repository.stats().evictions(), is(2L));
+    }
+
+    @Test
+    void returnCopiesSoCallersCannotChangeCachedPerson() {
+        repository.get("id1").orElseThrow().updateCreditLimit(BigDecimal.valueOf(999));
+
+        assertThat(repository.get("id1").orElseThrow().creditLimit(), is(BigDecimal.TEN));
+    }
+
+    @Test
+    void getManyOnlyFetchesUncachedIds() {
+        repository.get("id1");
+        var persons = repository.getMany(List.of("id1", "id2", "unknown"));
+        repository.getMany(List.of("id1", "id2", "unknown"));
+
+        assertThat(persons.keySet(), contains("id1", "id2"));
+        assertThat(delegate.getManyCalls.get(), is(1));
+    }
+
+    @Test
+    void getManyKeepsOrderOfIds() {
+        repository.get("id2");
+
+        var persons = repository.getMany(List.of("id1", "unknown", "id2"));
+
+        assertThat(persons.keySet(), contains("id1", "id2"));
+    }
+
+    @Test
+    void dropLoadThatRacedSave() throws Exception {
+        var slowDelegate = new BlockingGetRepository();
+        slowDelegate.save(person("id1", "Anna"));
+        repository = cachingRepository(slowDelegate, 100);
+
+        var load = CompletableFuture.supplyAsync(() -> repository.get("id1"));
+        slowDelegate.loaded.await();
+        repository.save(person("id1", "Anna Maria"));
+        slowDelegate.saved.countDown();
+
+        assertThat(load.get().orElseThrow().name(), is("Anna"));
+        assertThat(repository.get("id1").orElseThrow().name(), is("Anna Maria"));
+    }
+
+    @Test
+    void dropManyLoadThatRacedSave() throws Exception {
+        var slowDelegate = new BlockingGetRepository();
+        slowDelegate.save(person("id1", "Anna"));
+        slowDelegate.save(person("id2", "John"));
+        repository = cachingRepository(slowDelegate, 100);
+
+        var load = CompletableFuture.supplyAsync(() -> repository.getMany(List.of("id1", "id2")));
+        slowDelegate.loaded.await();
+        repository.save(person("id1", "Anna Maria"));
+        slowDelegate.saved.countDown();
+        load.get();
+
+        assertThat(repository.getMany(List.of("id1", "id2")).get("id1").name(), is("Anna Maria"));
+        assertThat("untouched id stays cached", slowDelegate.getManyCalls.get(), is(2));
+        assertThat(repository.stats().hits(), is(1L));
+    }
+
+    @Test
+    void cacheMissOfHttpRepository() throws Exception {
+        try (var server = new StubElasticServer(request -> new StubElasticServer.Response(404,
+                "{\"_index\":\"persons\",\"_id\":\"unknown\",\"found\":false}"))) {
+            var options = new RepositoryOptions.Builder().nodes(NodeSettings.of(server.url())).build();
+            try (var httpRepository = new HttpClientJsonPersonRepository("persons", options)) {
+                repository = cachingRepository(httpRepository, 100);
+
+                assertThat(repository.get("unknown"), is(Optional.empty()));
+                assertThat(repository.get("unknown"), is(Optional.empty()));
+                assertThat(server.requests().size(), is(1));
+                assertThat(repository.stats().hits(), is(1L));
+            }
+        }
+    }
+
+    private CachingPersonRepository cachingRepository(int maxEntries) {
+        return cachingRepository(delegate, maxEntries);
+    }
+
+    private CachingPersonRepository cachingRepository(PersonRepository delegate, int maxEntries) {
+        var settings = new CacheSettings(maxEntries, Long.MAX_VALUE, TTL, NEGATIVE_TTL);
+        return new CachingPersonRepository(delegate, settings, clock);
+    }
+
+    private static Person person(String id, String name) {
+        return new Person(id, name, LocalDate.of(1980, 1, 1), BigDecimal.TEN, true);
+    }
+
+    // Reads the stored person, then waits until the test has saved a newer one.
+    private static class BlockingGetRepository extends InMemoryPersonRepository {
+        final CountDownLatch loaded = new CountDownLatch(1);
+        final CountDownLatch saved = new CountDownLatch(1);
+
+        @Override
+        public Optional<Person> get(String id) {
+            return awaitSave(super.get(id));
+        }
+
+        @Override
+        public Map<String, Person> getMany(Collection<String> ids) {
+            return awaitSave(super.getMany(ids));
+        }
+
+        private <T> T awaitSave(T result) {
+            loaded.countDown();
+            try {
+                saved.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package infra;
+
+import elastic.infra.ElasticRequestEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ElasticRequestEventTest {
+
+    @Test
+    void recordPhasesPayloadAndServerTook() throws IOException {
+        var events = record(() -> {
+            var event = ElasticRequestEvent.start("TestRepository", "queryByName");
+            event.serialized(120);
+            event.responseReceived(200, 4096);
+            event.result(10, 7L);
+            event.finish();
+        });
+
+        assertThat(events, hasSize(1));
+        var event = events.get(0);
+        assertThat(event.getString("repository"), is("TestRepository"));
+        assertThat(event.getString("operation"), is("queryByName"));
+        assertThat(event.getInt("statusCode"), is(200));
+        assertThat(event.getLong("requestBytes"), is(120L));
+        assertThat(event.getLong("responseBytes"), is(4096L));
+        assertThat(event.getInt("hits"), is(10));
+        assertThat(event.getDuration("serverTook"), is(Duration.ofMillis(7)));
+        var phases = event.getDuration("serializeTime")
+                .plus(event.getDuration("networkTime"))
+                .plus(event.getDuration("deserializeTime"));
+        assertThat(phases, lessThanOrEqualTo(event.getDuration()));
+    }
+
+    @Test
+    void skipDeserializePhaseWhenNoResponseArrived() throws IOException {
+        var events = record(() -> {
+            var event = ElasticRequestEvent.start("TestRepository", "get");
+            event.serialized(0);
+            event.finish();
+        });
+
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).getInt("statusCode"), is(0));
+        assertThat(events.get(0).getDuration("deserializeTime"), is(Duration.ZERO));
+    }
+
+    @Test
+    void doNothingWhenNotRecording() {
+        var event = ElasticRequestEvent.start("TestRepository", "get");
+        event.serialized(10);
+        event.responseReceived(200, 10);
+        event.finish();
+
+        assertThat(event.isEnabled(), is(false));
+    }
+
+    private static List<RecordedEvent> record(Runnable action) throws IOException {
+        var file = Files.createTempFile("elastic-request", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable(ElasticRequestEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("elastic.Request"))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package infra;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import elastic.infra.ElasticClientJsonPersonRepository;
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Search bodies of the exact-match queries, which run in filter context without scores.
+ */
+public class FilterContextTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private StubElasticServer server;
+    private PersonRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        server.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void filterCustomersWithoutScores(String implementation) throws IOException {
+        start(implementation, new RepositoryOptions.Builder());
+
+        repository.getAll(true);
+
+        var body = lastBody();
+        assertThat(body.path("track_scores").asBoolean(true), is(false));
+        assertThat(body.path("track_total_hits").asInt(), is(10_000));
+        var filter = body.path("query").path("bool").path("filter").get(0);
+        assertThat(filter.path("term").has("customer"), is(true));
+        assertThat(body.path("query").path("bool").has("must"), is(false));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void filterCreditLimitRangeInWholeCents(String implementation) throws IOException {
+        start(implementation, new RepositoryOptions.Builder().trackTotalHitsUpTo(0));
+
+        repository.queryByCreditLimit(new BigDecimal("1.001"), new BigDecimal("9.999"));
+
+        var body = lastBody();
+        assertThat(body.path("track_scores").asBoolean(true), is(false));
+        assertThat(body.path("track_total_hits").isBoolean(), is(true));
+        assertThat(body.path("track_total_hits").asBoolean(true), is(false));
+        var range = body.path("query").path("bool").path("filter").get(0).path("range").path("creditLimitCents");
+        assertThat(range.path("gte").asLong(), is(101L));
+        assertThat(range.path("lte").asLong(), is(999L));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void keepScoringFullTextSearch(String implementation) throws IOException {
+        start(implementation, new RepositoryOptions.Builder());
+
+        repository.queryByName("Anna");
+
+        var body = lastBody();
+        assertThat(body.has("track_scores"), is(false));
+        assertThat(body.path("query").has("match"), is(true));
+    }
+
+    private void start(String implementation, RepositoryOptions.Builder options) throws IOException {
+        server = new StubElasticServer(request -> StubElasticServer.Response.ok("{\"took\":1,\"timed_out\":false,"
+                + "\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},\"hits\":{\"hits\":[]}}"));
+        var repositoryOptions = options.nodes(NodeSettings.of(server.url())).build();
+        repository = switch (implementation) {
+            case "http" -> new HttpClientJsonPersonRepository("persons", repositoryOptions);
+            case "client" -> new ElasticClientPersonRepository("persons", repositoryOptions);
+            default -> new ElasticClientJsonPersonRepository("persons", repositoryOptions);
+        };
+    }
+
+    private JsonNode lastBody() throws IOException {
+        var requests = server.requests();
+        var request = requests.get(requests.size() - 1);
+        assertThat(request.is("POST", "/persons/_search"), is(true));
+        return MAPPER.readTree(request.body());
+    }
+}
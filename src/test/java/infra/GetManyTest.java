@@ -0,0 +1,94 @@
+package infra;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import elastic.infra.ElasticClientJsonPersonRepository;
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * getMany against a stub _mget that finds every id except those starting with "missing".
+ */
+public class GetManyTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private StubElasticServer server;
+    private PersonRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        server.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void fetchDistinctIdsInChunks(String implementation) throws IOException {
+        start(implementation);
+
+        var persons = repository.getMany(List.of("a", "b", "a", "missing-1", "c", "b"));
+
+        assertThat(persons.keySet(), contains("a", "b", "c"));
+        assertThat(persons.get("c").name(), is("Person c"));
+        assertThat(server.requests().stream().map(GetManyTest::requestedIds).toList(),
+                contains(List.of("a", "b"), List.of("missing-1", "c")));
+        assertThat(server.requests().get(0).is("POST", "/persons/_mget"), is(true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void skipRequestWithoutIds(String implementation) throws IOException {
+        start(implementation);
+
+        assertThat(repository.getMany(List.of()).isEmpty(), is(true));
+        assertThat(server.requests(), is(empty()));
+    }
+
+    private void start(String implementation) throws IOException {
+        server = new StubElasticServer(GetManyTest::respond);
+        var options = new RepositoryOptions.Builder()
+                .multiGetChunkSize(2)
+                .nodes(NodeSettings.of(server.url()))
+                .build();
+        repository = switch (implementation) {
+            case "http" -> new HttpClientJsonPersonRepository("persons", options);
+            case "client" -> new ElasticClientPersonRepository("persons", options);
+            default -> new ElasticClientJsonPersonRepository("persons", options);
+        };
+    }
+
+    private static List<String> requestedIds(StubElasticServer.Request request) {
+        try {
+            var ids = new ArrayList<String>();
+            MAPPER.readTree(request.body()).get("ids").forEach(id -> ids.add(id.asText()));
+            return ids;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static StubElasticServer.Response respond(StubElasticServer.Request request) {
+        var docs = requestedIds(request).stream()
+                .map(id -> id.startsWith("missing")
+                        ? "{\"_index\":\"persons\",\"_id\":\"" + id + "\",\"found\":false}"
+                        : "{\"_index\":\"persons\",\"_id\":\"" + id + "\",\"_version\":1,\"_seq_no\":0,"
+                        + "\"_primary_term\":1,\"found\":true,\"_source\":{\"name\":\"Person " + id + "\","
+                        + "\"birthDate\":0,\"creditLimitCents\":100,\"customer\":false}}")
+                .toList();
+        return StubElasticServer.Response.ok("{\"docs\":[" + String.join(",", docs) + "]}");
+    }
+}
@@ -0,0 +1,96 @@
+package infra;
+
+import elastic.infra.CompressionSettings;
+import elastic.infra.HttpCompression;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class HttpCompressionTest {
+
+    private static final byte[] LARGE_BODY = "{\"name\":\"Anna\"}\n".repeat(200).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SMALL_BODY = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpCompression compression = new HttpCompression(CompressionSettings.gzip(1024));
+
+    @Test
+    void compressRequestBodyAboveThreshold() throws IOException {
+        var request = new HttpPost("http://localhost:9200/persons/_bulk");
+        request.setEntity(new ByteArrayEntity(LARGE_BODY));
+
+        compression.compress(request);
+
+        assertThat(request.getFirstHeader("Content-Encoding").getValue(), is("gzip"));
+        assertThat(request.getFirstHeader("Accept-Encoding").getValue(), is("gzip"));
+        var sent = EntityUtils.toByteArray(request.getEntity());
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(sent)).readAllBytes(), is(LARGE_BODY));
+        var stats = compression.stats();
+        assertThat(stats.requestBytes(), is((long) LARGE_BODY.length));
+        assertThat(stats.compressedRequestBytes(), is((long) sent.length));
+        assertThat(stats.requestRatio(), lessThan(0.5));
+    }
+
+    @Test
+    void sendBodyBelowThresholdAsIs() throws IOException {
+        var request = new HttpPost("http://localhost:9200/persons/_search");
+        request.setEntity(new ByteArrayEntity(SMALL_BODY));
+
+        compression.compress(request);
+
+        assertThat(request.containsHeader("Content-Encoding"), is(false));
+        assertThat(EntityUtils.toByteArray(request.getEntity()), is(SMALL_BODY));
+        assertThat(compression.stats().compressedRequestBytes(), is((long) SMALL_BODY.length));
+    }
+
+    @Test
+    void decompressGzipResponseAndCountBothSizes() throws IOException {
+        var gzipped = gzip(LARGE_BODY);
+        var entity = new ByteArrayEntity(gzipped);
+        entity.setContentEncoding("gzip");
+        var response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(entity);
+        response.setHeader("Content-Encoding", "gzip");
+
+        compression.decompress(response);
+
+        assertThat(response.containsHeader("Content-Encoding"), is(false));
+        assertThat(response.getEntity().getContentEncoding(), nullValue());
+        assertThat(EntityUtils.toByteArray(response.getEntity()), is(LARGE_BODY));
+        var stats = compression.stats();
+        assertThat(stats.responseBytes(), is((long) LARGE_BODY.length));
+        assertThat(stats.compressedResponseBytes(), is((long) gzipped.length));
+    }
+
+    @Test
+    void countUncompressedResponseOnBothSides() throws IOException {
+        var response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new ByteArrayEntity(SMALL_BODY));
+
+        compression.decompress(response);
+
+        assertThat(EntityUtils.toByteArray(response.getEntity()), is(SMALL_BODY));
+        assertThat(compression.stats().responseBytes(), is((long) SMALL_BODY.length));
+        assertThat(compression.stats().compressedResponseBytes(), is((long) SMALL_BODY.length));
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,190 @@
+package infra;
+
+import elastic.model.BulkLoad;
+import elastic.model.BirthYearBucket;
+import elastic.model.BulkResult;
+import elastic.model.CreditLimitStats;
+import elastic.model.MoneyConverter;
+import elastic.model.Person;
+import elastic.model.PersonField;
+import elastic.model.PersonProjection;
+import elastic.model.PersonRepository;
+import elastic.model.RefreshPolicy;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+class InMemoryPersonRepository implements PersonRepository {
+
+    final Map<String, Person> persons = new ConcurrentHashMap<>();
+    final AtomicInteger getCalls = new AtomicInteger();
+    final AtomicInteger getManyCalls = new AtomicInteger();
+    final AtomicInteger saveAllCalls = new AtomicInteger();
+    final AtomicInteger refreshCalls = new AtomicInteger();
+    final List<RefreshPolicy> refreshPolicies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @Override
+    public void save(Person person) {
+        if (person.id() == null) {
+            person.initialize("id" + nextId.incrementAndGet());
+        }
+        persons.put(person.id(), person);
+    }
+
+    @Override
+    public void save(Person person, RefreshPolicy refreshPolicy) {
+        refreshPolicies.add(refreshPolicy);
+        save(person);
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons) {
+        saveAllCalls.incrementAndGet();
+        var items = new ArrayList<BulkResult.Item>();
+        for (var person : persons) {
+            save(person);
+            items.add(BulkResult.Item.success(person, person.id(), 201));
+        }
+        return new BulkResult(items);
+    }
+
+    @Override
+    public BulkResult saveAll(Collection<Person> persons, RefreshPolicy refreshPolicy) {
+        refreshPolicies.add(refreshPolicy);
+        return saveAll(persons);
+    }
+
+    @Override
+    public Optional<Person> get(String id) {
+        getCalls.incrementAndGet();
+        return Optional.ofNullable(persons.get(id));
+    }
+
+    @Override
+    public Map<String, Person> getMany(Collection<String> ids) {
+        getManyCalls.incrementAndGet();
+        var found = new LinkedHashMap<String, Person>();
+        ids.stream()
+                .filter(persons::containsKey)
+                .forEach(id -> found.put(id, persons.get(id)));
+        return found;
+    }
+
+    @Override
+    public List<Person> getAll(boolean onlyCustomers) {
+        return streamAll(onlyCustomers).toList();
+    }
+
+    @Override
+    public List<PersonProjection> getAll(boolean onlyCustomers, Set<PersonField> fields) {
+        return project(getAll(onlyCustomers), fields);
+    }
+
+    @Override
+    public Stream<Person> streamAll(boolean onlyCustomers) {
+        return persons.values().stream()
+                .filter(person -> !onlyCustomers || person.isCustomer());
+    }
+
+    @Override
+    public List<Person> queryByName(String name) {
+        return persons.values().stream()
+                .filter(person -> person.name().contains(name))
+                .toList();
+    }
+
+    @Override
+    public List<Person> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue) {
+        return persons.values().stream()
+                .filter(person -> person.creditLimit().compareTo(minValue) >= 0
+                        && person.creditLimit().compareTo(maxValue) <= 0)
+                .toList();
+    }
+
+    @Override
+    public List<PersonProjection> queryByName(String name, Set<PersonField> fields) {
+        return project(queryByName(name), fields);
+    }
+
+    @Override
+    public List<PersonProjection> queryByCreditLimit(BigDecimal minValue, BigDecimal maxValue,
+                                                     Set<PersonField> fields) {
+        return project(queryByCreditLimit(minValue, maxValue), fields);
+    }
+
+    private static List<PersonProjection> project(List<Person> persons, Set<PersonField> fields) {
+        return persons.stream()
+                .map(person -> new PersonProjection(person.id(),
+                        fields.contains(PersonField.NAME) ? person.name() : null,
+                        fields.contains(PersonField.BIRTH_DATE) ? person.birthDate() : null,
+                        fields.contains(PersonField.CREDIT_LIMIT) ? person.creditLimit() : null,
+                        fields.contains(PersonField.CUSTOMER) ? person.isCustomer() : null))
+                .toList();
+    }
+
+    @Override
+    public long count(boolean onlyCustomers) {
+        return streamAll(onlyCustomers).count();
+    }
+
+    @Override
+    public CreditLimitStats creditLimitStats(boolean onlyCustomers) {
+        return stats(streamAll(onlyCustomers).toList());
+    }
+
+    @Override
+    public List<BirthYearBucket> histogramByBirthYear(int fromYear, int toYear, boolean onlyCustomers) {
+        var buckets = new ArrayList<BirthYearBucket>();
+        for (int year = fromYear; year <= toYear; year++) {
+            var bornInYear = year;
+            var persons = streamAll(onlyCustomers)
+                    .filter(person -> person.birthDate() != null && person.birthDate().getYear() == bornInYear)
+                    .toList();
+            buckets.add(new BirthYearBucket(year, persons.size(), stats(persons)));
+        }
+        return buckets;
+    }
+
+    private static CreditLimitStats stats(List<Person> persons) {
+        var limits = persons.stream()
+                .map(Person::creditLimit)
+                .filter(Objects::nonNull)
+                .mapToLong(MoneyConverter::toCents)
+                .summaryStatistics();
+        return CreditLimitStats.ofCents(limits.getCount(), limits.getMin(), limits.getMax(),
+                limits.getAverage(), limits.getSum());
+    }
+
+    @Override
+    public void refresh() {
+        refreshCalls.incrementAndGet();
+    }
+
+    @Override
+    public BulkLoad beginBulkLoad(int maxNumSegments) {
+        return () -> refresh();
+    }
+
+    @Override
+    public void createIndex() {
+    }
+
+    @Override
+    public void deleteIndex() {
+        persons.clear();
+    }
+
+    @Override
+    public long reindexFrom(String sourceIndex) {
+        return 0;
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
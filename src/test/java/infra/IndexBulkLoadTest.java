@@ -0,0 +1,83 @@
+package infra;
+
+import elastic.infra.IndexBulkLoad;
+import elastic.infra.IndexSettings;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IndexBulkLoadTest {
+
+    private final RecordingIndexAdmin admin = new RecordingIndexAdmin();
+
+    @Test
+    void disableRefreshAndReplicasThenRestoreRefreshAndMerge() {
+        admin.current = new IndexBulkLoad.DynamicSettings("5s", "2");
+
+        var bulkLoad = IndexBulkLoad.begin(admin, 1, IndexSettings.DEFAULT);
+        try {
+            assertThat(admin.calls, contains("update -1/0"));
+        } finally {
+            bulkLoad.close();
+        }
+
+        assertThat(admin.calls, contains("update -1/0", "update 5s/2", "refresh", "forceMerge 1"));
+    }
+
+    @Test
+    void restoreConfiguredSettingsWhenIndexHasNoExplicitValues() {
+        admin.current = new IndexBulkLoad.DynamicSettings(null, null);
+        var fallback = new IndexSettings(1, 1, Duration.ofSeconds(30));
+
+        IndexBulkLoad.begin(admin, 0, fallback).close();
+
+        assertThat(admin.calls, contains("update -1/0", "update 30000ms/1", "refresh"));
+    }
+
+    @Test
+    void restoreOnlyOnce() {
+        admin.current = new IndexBulkLoad.DynamicSettings("1s", "1");
+        var bulkLoad = IndexBulkLoad.begin(admin, 0, IndexSettings.DEFAULT);
+
+        bulkLoad.close();
+        bulkLoad.close();
+
+        assertThat(admin.calls, contains("update -1/0", "update 1s/1", "refresh"));
+    }
+
+    @Test
+    void rejectNegativeSegmentCount() {
+        assertThrows(IllegalArgumentException.class, () -> IndexBulkLoad.begin(admin, -1, IndexSettings.DEFAULT));
+    }
+
+    private static class RecordingIndexAdmin implements IndexBulkLoad.IndexAdmin {
+        final List<String> calls = new ArrayList<>();
+        IndexBulkLoad.DynamicSettings current;
+
+        @Override
+        public IndexBulkLoad.DynamicSettings currentSettings() {
+            return current;
+        }
+
+        @Override
+        public void updateSettings(IndexBulkLoad.DynamicSettings settings) {
+            calls.add("update " + settings.refreshInterval() + "/" + settings.numberOfReplicas());
+        }
+
+        @Override
+        public void refresh() {
+            calls.add("refresh");
+        }
+
+        @Override
+        public void forceMerge(int maxNumSegments) {
+            calls.add("forceMerge " + maxNumSegments);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package infra;
+
+import elastic.infra.InstrumentedPersonRepository;
+import elastic.model.Person;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InstrumentedPersonRepositoryTest {
+
+    @Test
+    void countCallsAndErrorsPerOperation() throws Exception {
+        var mBeanServer = MBeanServerFactory.newMBeanServer();
+        var failing = new FailingGetRepository();
+        var repository = new InstrumentedPersonRepository(failing, mBeanServer);
+
+        repository.queryByName("any");
+        repository.queryByName("any");
+        assertThrows(IllegalStateException.class, () -> repository.get("id1"));
+
+        var name = new ObjectName(
+                "elastic:type=PersonRepository,repository=FailingGetRepository,operation=queryByName");
+        assertThat(mBeanServer.getAttribute(name, "Count"), is(2L));
+        assertThat(repository.metrics().get("get").getErrors(), is(1L));
+        assertThat(repository.snapshotAndReset().get("queryByName").latency().count(), is(2L));
+        assertThat(repository.metrics().get("queryByName").getCount(), is(0L));
+
+        repository.close();
+        assertThat(mBeanServer.isRegistered(name), is(false));
+    }
+
+    @Test
+    void keepMetricsOfEachInstanceApart() throws Exception {
+        var mBeanServer = MBeanServerFactory.newMBeanServer();
+        var first = new InstrumentedPersonRepository(new InMemoryPersonRepository(), mBeanServer);
+        var second = new InstrumentedPersonRepository(new InMemoryPersonRepository(), mBeanServer);
+
+        var prefix = "elastic:type=PersonRepository,repository=InMemoryPersonRepository";
+        var firstName = new ObjectName(prefix + ",operation=queryByName");
+        assertThat(mBeanServer.isRegistered(new ObjectName(prefix + ",instance=2,operation=queryByName")), is(true));
+        first.queryByName("any");
+        second.close();
+
+        assertThat(mBeanServer.getAttribute(firstName, "Count"), is(1L));
+        assertThat(mBeanServer.isRegistered(new ObjectName(prefix + ",instance=2,operation=queryByName")), is(false));
+
+        var third = new InstrumentedPersonRepository(new InMemoryPersonRepository(), mBeanServer);
+        third.queryByName("any");
+        third.queryByName("any");
+        assertThat(mBeanServer.getAttribute(new ObjectName(prefix + ",instance=2,operation=queryByName"), "Count"),
+                is(2L));
+        assertThat(mBeanServer.getAttribute(firstName, "Count"), is(1L));
+
+        first.close();
+        third.close();
+    }
+
+    private static class FailingGetRepository extends InMemoryPersonRepository {
+        @Override
+        public Optional<Person> get(String id) {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package infra;
+
+import elastic.infra.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZeros() {
+        var snapshot = new LatencyHistogram().snapshot();
+
+        assertThat(snapshot.count(), is(0L));
+        assertThat(snapshot.p99Nanos(), is(0L));
+        assertThat(snapshot.meanNanos(), is(0.0));
+    }
+
+    @Test
+    void reportPercentilesWithinBucketPrecision() {
+        var histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        var snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count(), is(1000L));
+        assertThat(snapshot.maxNanos(), is(1_000_000L));
+        assertThat((double) snapshot.p50Nanos(), closeTo(500_000, 500_000 * 0.07));
+        assertThat((double) snapshot.p99Nanos(), closeTo(990_000, 990_000 * 0.07));
+        assertThat(snapshot.p999Nanos(), lessThanOrEqualTo(1_000_000L));
+        assertThat(snapshot.meanNanos(), closeTo(500_500, 0.001));
+    }
+
+    @Test
+    void recordSmallValuesExactly() {
+        var histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(3);
+        histogram.record(7);
+
+        assertThat(histogram.snapshot().p50Nanos(), is(3L));
+        assertThat(histogram.snapshot().p99Nanos(), is(7L));
+    }
+
+    @Test
+    void resetStartsNewInterval() {
+        var histogram = new LatencyHistogram();
+        histogram.record(1_000);
+
+        var first = histogram.snapshotAndReset();
+        var second = histogram.snapshot();
+
+        assertThat(first.count(), is(1L));
+        assertThat(second.count(), is(0L));
+        assertThat(second.maxNanos(), is(0L));
+    }
+
+    @Test
+    void handleHugeValues() {
+        var histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.snapshot().p50Nanos(), is(Long.MAX_VALUE));
+    }
+
+}
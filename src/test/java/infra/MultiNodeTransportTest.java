@@ -0,0 +1,303 @@
+package infra;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.transport.instrumentation.NoopInstrumentation;
+import com.sun.net.httpserver.HttpServer;
+import elastic.infra.CompressionSettings;
+import elastic.infra.ElasticFactory;
+import elastic.infra.HttpCompression;
+import elastic.infra.HttpPoolSettings;
+import elastic.infra.HttpTransport;
+import elastic.infra.NodePool;
+import elastic.infra.NodeSettings;
+import org.apache.http.HttpHost;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Both transports against several local stub nodes, each answering every request with its own name.
+ */
+public class MultiNodeTransportTest {
+
+    private final List<StubNode> nodes = new ArrayList<>();
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(StubNode::stop);
+    }
+
+    @Test
+    void spreadRequestsOverNodes() throws IOException {
+        startNodes(3);
+        try (var transport = transport(settings(nodes))) {
+            for (int i = 0; i < 9; i++) {
+                get(transport);
+            }
+        }
+
+        assertThat(nodes.stream().map(node -> node.requests.get()).toList(), contains(3, 3, 3));
+    }
+
+    @Test
+    void failOverUnreachableNode() throws IOException {
+        startNodes(3);
+        nodes.get(1).stop();
+        try (var transport = transport(settings(nodes))) {
+            var answers = new ArrayList<String>();
+            for (int i = 0; i < 6; i++) {
+                answers.add(get(transport));
+            }
+
+            assertThat(answers, everyItem(oneOf("node0", "node2")));
+            assertThat(transport.nodePool().isAlive(nodes.get(1).host()), is(false));
+        }
+    }
+
+    @Test
+    void retryUnavailableNodeWithReplayedBody() throws Exception {
+        startNodes(2);
+        nodes.get(0).status = 503;
+        try (var transport = transport(settings(nodes))) {
+            for (int i = 0; i < 2; i++) {
+                var request = new HttpPost("/persons/_search");
+                request.setEntity(new ByteArrayEntity("{\"size\":1}".getBytes(StandardCharsets.UTF_8)));
+                var answer = transport.executeAsync(request).get();
+                assertThat(EntityUtils.toString(answer.getEntity()), is("node1"));
+            }
+
+            assertThat(nodes.get(1).lastBody, is("{\"size\":1}"));
+            assertThat(transport.nodePool().isAlive(nodes.get(0).host()), is(false));
+        }
+    }
+
+    @Test
+    void backOffLastNodeAnsweringUnavailable() throws Exception {
+        startNodes(1);
+        nodes.get(0).status = 503;
+        var host = nodes.get(0).host();
+        try (var transport = transport(settings(nodes))) {
+            assertThat(get(transport), is("node0"));
+            assertThat(transport.nodePool().isAlive(host), is(false));
+
+            transport.nodePool().onStart(host);
+            transport.nodePool().onSuccess(host);
+            var answer = transport.executeAsync(new HttpGet("/")).get();
+
+            assertThat(answer.getStatusLine().getStatusCode(), is(503));
+            assertThat(transport.nodePool().isAlive(host), is(false));
+            assertThat(transport.nodePool().outstanding(host), is(0));
+        }
+    }
+
+    @Test
+    void keepNodeAliveWhenCallerHandlerFails() throws IOException {
+        startNodes(1);
+        var host = nodes.get(0).host();
+        try (var transport = transport(settings(nodes))) {
+            transport.nodePool().onStart(host);
+            transport.nodePool().onFailure(host);
+
+            assertThrows(IllegalStateException.class, () -> transport.execute(new HttpGet("/"), response -> {
+                throw new IllegalStateException("Caller rejected the answer");
+            }));
+
+            assertThat(transport.nodePool().isAlive(host), is(true));
+            assertThat(transport.nodePool().outstanding(host), is(0));
+        }
+    }
+
+    @Test
+    void discoverNodesBySniffing() throws Exception {
+        startNodes(3);
+        nodes.get(0).nodesInfo = nodesInfo(nodes);
+        var settings = settings(nodes.subList(0, 1)).withSniffInterval(Duration.ofMinutes(1));
+        try (var transport = transport(settings)) {
+            waitFor(() -> transport.nodePool().hosts().size() == 3);
+            var answers = new ArrayList<String>();
+            for (int i = 0; i < 3; i++) {
+                answers.add(get(transport));
+            }
+
+            assertThat(answers, containsInAnyOrder("node0", "node1", "node2"));
+        }
+    }
+
+    @Test
+    void failOverJavaClientRequests() throws IOException {
+        startNodes(3);
+        nodes.get(0).stop();
+        var settings = settings(nodes).withSelection(NodeSettings.Selection.LEAST_OUTSTANDING);
+        var esClient = ElasticFactory.buildElasticClient(NoopInstrumentation.INSTANCE,
+                new HttpCompression(CompressionSettings.DISABLED), settings);
+        try {
+            for (int i = 0; i < 4; i++) {
+                assertThat(ping(esClient), is(true));
+            }
+        } finally {
+            esClient._transport().close();
+        }
+
+        assertThat(nodes.get(1).requests.get() + nodes.get(2).requests.get(), is(4));
+        assertThat(nodes.get(1).requests.get(), greaterThan(0));
+        assertThat(nodes.get(2).requests.get(), greaterThan(0));
+    }
+
+    @Test
+    void shareDeadNodesWithJavaClient() throws IOException {
+        startNodes(2);
+        nodes.get(0).status = 503;
+        var settings = settings(nodes);
+        try (var transport = transport(settings)) {
+            assertThat(get(transport), is("node1"));
+            var esClient = ElasticFactory.buildElasticClient(NoopInstrumentation.INSTANCE,
+                    new HttpCompression(CompressionSettings.DISABLED), settings);
+            try {
+                for (int i = 0; i < 4; i++) {
+                    assertThat(ping(esClient), is(true));
+                }
+            } finally {
+                esClient._transport().close();
+            }
+        }
+
+        assertThat("dead node skipped by the Java client", nodes.get(0).requests.get(), is(1));
+        assertThat(nodes.get(1).requests.get(), is(5));
+    }
+
+    @Test
+    void finishJavaClientRequestOnNodeDroppedMeanwhile() throws Exception {
+        startNodes(2);
+        nodes.forEach(node -> node.gate = new CountDownLatch(1));
+        var settings = settings(nodes);
+        var esClient = ElasticFactory.buildElasticClient(NoopInstrumentation.INSTANCE,
+                new HttpCompression(CompressionSettings.DISABLED), settings);
+        var nodePool = NodePool.acquire(settings);
+        try {
+            var ping = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return ping(esClient);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            waitFor(() -> nodes.stream().anyMatch(node -> node.requests.get() > 0));
+            var busy = nodes.get(0).requests.get() > 0 ? nodes.get(0) : nodes.get(1);
+            var other = busy == nodes.get(0) ? nodes.get(1) : nodes.get(0);
+
+            nodePool.setHosts(List.of(other.host()));
+            nodes.forEach(node -> node.gate.countDown());
+
+            assertThat(ping.get(), is(true));
+            assertThat("answered by the dropped node without failover", other.requests.get(), is(0));
+        } finally {
+            nodePool.release();
+            esClient._transport().close();
+        }
+    }
+
+    private static boolean ping(ElasticsearchClient esClient) throws IOException {
+        return esClient.ping().value();
+    }
+
+    private static String get(HttpTransport transport) throws IOException {
+        return transport.execute(new HttpGet("/"), response -> EntityUtils.toString(response.getEntity()));
+    }
+
+    private static HttpTransport transport(NodeSettings settings) {
+        return new HttpTransport(HttpPoolSettings.DEFAULT, CompressionSettings.DISABLED, settings);
+    }
+
+    private static NodeSettings settings(List<StubNode> nodes) {
+        return NodeSettings.of(nodes.stream().map(node -> node.host().toURI()).collect(Collectors.joining(",")));
+    }
+
+    private void startNodes(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            nodes.add(new StubNode("node" + i));
+        }
+    }
+
+    private static String nodesInfo(List<StubNode> nodes) {
+        var entries = new ArrayList<String>();
+        for (var node : nodes) {
+            entries.add("\"" + node.name + "\":{\"roles\":[\"data\"],\"http\":{\"publish_address\":\"127.0.0.1:"
+                    + node.host().getPort() + "\"}}");
+        }
+        return "{\"nodes\":{" + String.join(",", entries) + "}}";
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean(), is(true));
+    }
+
+    private static class StubNode {
+        private final String name;
+        private final HttpServer server;
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile int status = 200;
+        private volatile String nodesInfo = "{\"nodes\":{}}";
+        private volatile String lastBody;
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        StubNode(String name) throws IOException {
+            this.name = name;
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", exchange -> {
+                var body = exchange.getRequestBody().readAllBytes();
+                var path = exchange.getRequestURI().getPath();
+                var response = path.equals("/_nodes/http") ? nodesInfo : name;
+                if (!path.equals("/_nodes/http")) {
+                    requests.incrementAndGet();
+                    lastBody = new String(body, StandardCharsets.UTF_8);
+                }
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+                exchange.getResponseHeaders().add("Content-Type", "text/plain");
+                var bytes = response.getBytes(StandardCharsets.UTF_8);
+                if ("HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(status, -1);
+                } else {
+                    exchange.sendResponseHeaders(status, bytes.length);
+                    exchange.getResponseBody().write(bytes);
+                }
+                exchange.close();
+            });
+            server.start();
+        }
+
+        HttpHost host() {
+            return new HttpHost("127.0.0.1", server.getAddress().getPort());
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+    }
+}
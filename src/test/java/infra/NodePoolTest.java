@@ -0,0 +1,171 @@
+package infra;
+
+import elastic.infra.NodePool;
+import elastic.infra.NodeSettings;
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NodePoolTest {
+
+    private static final HttpHost A = HttpHost.create("http://a:9200");
+    private static final HttpHost B = HttpHost.create("http://b:9200");
+    private static final HttpHost C = HttpHost.create("http://c:9200");
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void rotateOverNodes() {
+        var pool = pool(NodeSettings.Selection.ROUND_ROBIN);
+
+        assertThat(pool.candidates(), contains(A, B, C));
+        assertThat(pool.candidates(), contains(B, C, A));
+        assertThat(pool.candidates(), contains(C, A, B));
+    }
+
+    @Test
+    void skipDeadNodeUntilItsBackoffPassed() {
+        var pool = pool(NodeSettings.Selection.ROUND_ROBIN);
+        pool.onStart(B);
+        pool.onFailure(B);
+
+        assertThat(pool.candidates(), not(hasItem(B)));
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertThat(pool.isAlive(B), is(true));
+
+        pool.onStart(B);
+        pool.onFailure(B);
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertThat("backoff doubles", pool.isAlive(B), is(false));
+        clock.addAndGet(Duration.ofSeconds(60).toNanos());
+
+        pool.onStart(B);
+        pool.onSuccess(B);
+        pool.onStart(B);
+        pool.onFailure(B);
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertThat("success resets the backoff", pool.isAlive(B), is(true));
+    }
+
+    @Test
+    void capBackoff() {
+        var pool = new NodePool(NodeSettings.of("http://a:9200")
+                .withDeadBackoff(Duration.ofSeconds(1), Duration.ofSeconds(3)), clock::get);
+        for (int i = 0; i < 10; i++) {
+            pool.onStart(A);
+            pool.onFailure(A);
+        }
+
+        clock.addAndGet(Duration.ofSeconds(3).toNanos());
+
+        assertThat(pool.isAlive(A), is(true));
+    }
+
+    @Test
+    void tryNodeComingBackFirstWhenAllAreDead() {
+        var pool = pool(NodeSettings.Selection.ROUND_ROBIN);
+        pool.onFailure(A);
+        pool.onFailure(A);
+        clock.addAndGet(1);
+        pool.onFailure(C);
+        pool.onFailure(B);
+        pool.onFailure(B);
+
+        assertThat(pool.candidates(), contains(C));
+    }
+
+    @Test
+    void preferNodeWithFewestRequestsInFlight() {
+        var pool = pool(NodeSettings.Selection.LEAST_OUTSTANDING);
+        pool.onStart(A);
+        pool.onStart(A);
+        pool.onStart(B);
+
+        assertThat(pool.candidates(), contains(C, B, A));
+        pool.onSuccess(A);
+        pool.onSuccess(A);
+        assertThat(pool.candidates().get(2), is(B));
+        assertThat(pool.outstanding(B), is(1));
+    }
+
+    @Test
+    void keepNodeStateWhenHostsChange() {
+        var pool = pool(NodeSettings.Selection.ROUND_ROBIN);
+        pool.onStart(B);
+        pool.onFailure(B);
+        var d = HttpHost.create("http://d:9200");
+
+        pool.setHosts(List.of(B, d));
+
+        assertThat(pool.hosts(), contains(B, d));
+        assertThat(pool.isAlive(B), is(false));
+        assertThat(pool.candidates(), contains(d));
+    }
+
+    @Test
+    void notifyListenersOnlyWhenHostsChange() {
+        var pool = pool(NodeSettings.Selection.ROUND_ROBIN);
+        var notified = new ArrayList<List<HttpHost>>();
+        pool.addHostsListener(notified::add);
+
+        pool.setHosts(List.of(A, B, C));
+        pool.setHosts(List.of(A, C));
+
+        assertThat(notified, contains(List.of(A, C)));
+    }
+
+    @Test
+    void shareOnePoolPerSettings() {
+        var settings = NodeSettings.of("http://a:9200,http://b:9200");
+        var first = NodePool.acquire(settings);
+        var second = NodePool.acquire(NodeSettings.of("http://a:9200,http://b:9200"));
+        first.release();
+        var third = NodePool.acquire(settings);
+        second.release();
+        third.release();
+
+        assertThat(second, sameInstance(first));
+        assertThat(third, sameInstance(first));
+        assertThat("last release drops the pool", NodePool.acquire(settings), not(sameInstance(first)));
+    }
+
+    @Test
+    void readPublishedHttpAddresses() throws IOException {
+        var nodesInfo = """
+                {"_nodes":{"total":4},"cluster_name":"test","nodes":{
+                  "n1":{"roles":["data","master"],"http":{"publish_address":"10.0.0.1:9200"}},
+                  "n2":{"roles":["data"],"http":{"publish_address":"es-2.local/10.0.0.2:9201"}},
+                  "n3":{"roles":["master"],"http":{"publish_address":"10.0.0.3:9200"}},
+                  "n4":{"roles":["data"]}
+                }}""".getBytes(StandardCharsets.UTF_8);
+
+        var hosts = NodePool.publishedHosts(nodesInfo, "https");
+
+        assertThat(hosts, contains(HttpHost.create("https://10.0.0.1:9200"), HttpHost.create("https://es-2.local:9201")));
+    }
+
+    @Test
+    void rejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> NodeSettings.of(" , "));
+        assertThrows(IllegalArgumentException.class,
+                () -> NodeSettings.of("http://a:9200").withSniffInterval(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> NodeSettings.of("http://a:9200").withDeadBackoff(Duration.ofMinutes(2), Duration.ofMinutes(1)));
+    }
+
+    private NodePool pool(NodeSettings.Selection selection) {
+        return new NodePool(NodeSettings.of("http://a:9200, http://b:9200,http://c:9200")
+                .withSelection(selection), clock::get);
+    }
+}
@@ -0,0 +1,83 @@
+package infra;
+
+import co.elastic.clients.elasticsearch._types.mapping.DynamicMapping;
+import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
+import elastic.infra.IndexSettings;
+import elastic.infra.PersonDocument;
+import elastic.infra.PersonIndexDefinition;
+import elastic.infra.Serializer;
+import elastic.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PersonIndexDefinitionTest {
+
+    @Test
+    void mapEveryDocumentField() {
+        var serializer = new Serializer();
+        var person = new Person("John", LocalDate.of(1980, 12, 20), BigDecimal.valueOf(1000), true);
+        var document = serializer.fromJson(serializer.toJson(PersonDocument.of(person)), Map.class);
+
+        var request = createIndexRequest(IndexSettings.DEFAULT);
+
+        assertThat(request.mappings().properties().keySet(), is(document.keySet()));
+        assertThat(request.mappings().dynamic(), is(DynamicMapping.Strict));
+    }
+
+    @Test
+    void useCompactFieldTypes() {
+        var properties = createIndexRequest(IndexSettings.DEFAULT).mappings().properties();
+
+        assertThat(properties.get("name").isText(), is(true));
+        assertThat(properties.get("birthDate").isInteger(), is(true));
+        assertThat(properties.get("creditLimitCents").isLong(), is(true));
+        assertThat(properties.get("customer").boolean_().docValues(), is(false));
+    }
+
+    @Test
+    void applyIndexSettings() {
+        var settings = createIndexRequest(new IndexSettings(3, 0, Duration.ofSeconds(30))).settings().index();
+
+        assertThat(settings.numberOfShards(), is("3"));
+        assertThat(settings.numberOfReplicas(), is("0"));
+        assertThat(settings.refreshInterval().time(), is("30000ms"));
+    }
+
+    @Test
+    void disableRefreshWithoutInterval() {
+        var settings = createIndexRequest(new IndexSettings(1, 1, null)).settings().index();
+
+        assertThat(settings.refreshInterval().time(), is("-1"));
+    }
+
+    @Test
+    void roundTripPersonThroughDocument() {
+        var serializer = new Serializer();
+        var person = new Person("id1", "John", LocalDate.of(1980, 12, 20), new BigDecimal("1234.5"), true);
+
+        var stored = serializer.fromJson(serializer.toJson(PersonDocument.of(person)), PersonDocument.class);
+
+        assertThat(stored.getCreditLimitCents(), is(123450L));
+        assertThat(stored.toPerson("id1"), is(person));
+    }
+
+    @Test
+    void migrateCreditLimitWithoutRounding() {
+        assertThat(PersonIndexDefinition.CREDIT_LIMIT_CENTS_MIGRATION, allOf(
+                containsString("movePointRight(2).longValueExact()"), not(containsString("Math.round"))));
+    }
+
+    private static CreateIndexRequest createIndexRequest(IndexSettings settings) {
+        return CreateIndexRequest.of(c -> c
+                .index("persons")
+                .withJson(new ByteArrayInputStream(PersonIndexDefinition.json(settings))));
+    }
+}
@@ -0,0 +1,93 @@
+package infra;
+
+import elastic.infra.ElasticClientJsonPersonRepository;
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.PersonField;
+import elastic.model.PersonProjection;
+import elastic.model.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Source filtering of the projection queries against a stub that returns only the requested fields.
+ */
+public class ProjectionTest {
+
+    private StubElasticServer server;
+    private PersonRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        server.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void fetchOnlyRequestedFields(String implementation) throws IOException {
+        start(implementation);
+
+        var projections = repository.getAll(false, EnumSet.of(PersonField.NAME, PersonField.CREDIT_LIMIT));
+
+        assertThat(projections, contains(new PersonProjection("id1", "Anna", null, new BigDecimal("1.00"), null)));
+        assertThat(lastBody(), containsString("\"_source\":{\"includes\":[\"name\",\"creditLimitCents\"]}"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void fetchOnlyIdsForEmptySelection(String implementation) throws IOException {
+        start(implementation);
+
+        var projections = repository.queryByName("Anna", Set.of());
+
+        assertThat(projections, contains(new PersonProjection("id1", null, null, null, null)));
+        assertThat(lastBody(), allOf(containsString("\"_source\":false"), containsString("\"match\"")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void filterSourceOfCreditLimitQuery(String implementation) throws IOException {
+        start(implementation);
+
+        repository.queryByCreditLimit(BigDecimal.ONE, BigDecimal.TEN, EnumSet.of(PersonField.CUSTOMER));
+
+        assertThat(lastBody(), allOf(
+                containsString("\"_source\":{\"includes\":[\"customer\"]}"), containsString("creditLimitCents")));
+    }
+
+    private void start(String implementation) throws IOException {
+        server = new StubElasticServer(ProjectionTest::respond);
+        var options = new RepositoryOptions.Builder().nodes(NodeSettings.of(server.url())).build();
+        repository = switch (implementation) {
+            case "http" -> new HttpClientJsonPersonRepository("persons", options);
+            case "client" -> new ElasticClientPersonRepository("persons", options);
+            default -> new ElasticClientJsonPersonRepository("persons", options);
+        };
+    }
+
+    private String lastBody() {
+        var requests = server.requests();
+        return requests.get(requests.size() - 1).body();
+    }
+
+    private static StubElasticServer.Response respond(StubElasticServer.Request request) {
+        var source = request.body().contains("\"_source\":false")
+                ? ""
+                : ",\"_source\":{\"name\":\"Anna\",\"creditLimitCents\":100}";
+        return StubElasticServer.Response.ok("{\"took\":1,\"timed_out\":false,"
+                + "\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},"
+                + "\"hits\":{\"hits\":[{\"_index\":\"persons\",\"_id\":\"id1\",\"_score\":null" + source + "}]}}");
+    }
+}
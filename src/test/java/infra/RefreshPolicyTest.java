@@ -0,0 +1,107 @@
+package infra;
+
+import elastic.infra.ElasticClientJsonPersonRepository;
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.Person;
+import elastic.model.PersonRepository;
+import elastic.model.RefreshPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Refresh query parameters sent by the writes of every repository.
+ */
+public class RefreshPolicyTest {
+
+    private StubElasticServer server;
+    private PersonRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        server.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void sendRefreshOfEachSave(String implementation) throws IOException {
+        start(implementation, RefreshPolicy.NONE);
+
+        repository.save(person());
+        repository.save(person(), RefreshPolicy.WAIT_FOR);
+        repository.save(person(), RefreshPolicy.IMMEDIATE);
+
+        var queries = server.requests().stream().map(StubElasticServer.Request::query).toList();
+        assertThat(queries.get(0), anyOf(nullValue(), is("refresh=false")));
+        assertThat(queries.get(1), is("refresh=wait_for"));
+        assertThat(queries.get(2), is("refresh=true"));
+        assertThat(server.requests().get(0).path(), is("/persons/_doc/id1"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void applyDefaultPolicyToSaveAll(String implementation) throws IOException {
+        start(implementation, RefreshPolicy.WAIT_FOR);
+
+        repository.saveAll(List.of(person()));
+        repository.saveAll(List.of(person()), RefreshPolicy.IMMEDIATE);
+
+        var requests = server.requests();
+        assertThat(requests.get(0).is("POST", "/persons/_bulk"), is(true));
+        assertThat(requests.get(0).query(), is("refresh=wait_for"));
+        assertThat(requests.get(1).query(), is("refresh=true"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void refreshIndexExplicitly(String implementation) throws IOException {
+        start(implementation, RefreshPolicy.NONE);
+
+        repository.refresh();
+
+        assertThat(server.requests().get(0).is("POST", "/persons/_refresh"), is(true));
+    }
+
+    private void start(String implementation, RefreshPolicy refreshPolicy) throws IOException {
+        server = new StubElasticServer(RefreshPolicyTest::respond);
+        var options = new RepositoryOptions.Builder()
+                .refreshPolicy(refreshPolicy)
+                .nodes(NodeSettings.of(server.url()))
+                .build();
+        repository = switch (implementation) {
+            case "http" -> new HttpClientJsonPersonRepository("persons", options);
+            case "client" -> new ElasticClientPersonRepository("persons", options);
+            default -> new ElasticClientJsonPersonRepository("persons", options);
+        };
+    }
+
+    private static Person person() {
+        return new Person("id1", "Anna", LocalDate.of(1980, 1, 1), BigDecimal.TEN, true);
+    }
+
+    private static StubElasticServer.Response respond(StubElasticServer.Request request) {
+        var shards = "\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0}";
+        if (request.path().endsWith("/_refresh")) {
+            return StubElasticServer.Response.ok("{" + shards + "}");
+        }
+        var result = "\"_index\":\"persons\",\"_id\":\"id1\",\"_version\":1,\"result\":\"created\"," + shards
+                + ",\"_seq_no\":0,\"_primary_term\":1";
+        if (request.path().endsWith("/_bulk")) {
+            return StubElasticServer.Response.ok(
+                    "{\"took\":1,\"errors\":false,\"items\":[{\"index\":{" + result + ",\"status\":201}}]}");
+        }
+        return StubElasticServer.Response.ok("{" + result + "}");
+    }
+}
@@ -0,0 +1,115 @@
+package infra;
+
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Request shape of the credit limit migration against a stub that reports the reindex task as running
+ * for the given number of polls.
+ */
+public class ReindexTest {
+
+    private static final String TASK = "node-1:42";
+    private static final String TASK_INFO = "{\"node\":\"node-1\",\"id\":42,\"type\":\"transport\","
+            + "\"action\":\"indices:data/write/reindex\",\"start_time_in_millis\":0,\"running_time_in_nanos\":0,"
+            + "\"cancellable\":true,\"headers\":{}}";
+
+    private final AtomicInteger runningPolls = new AtomicInteger();
+    private boolean indexExists;
+    private String taskError;
+    private StubElasticServer server;
+    private PersonRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        server.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client"})
+    void createMissingIndexThenPollReindexTask(String implementation) throws IOException {
+        runningPolls.set(1);
+        start(implementation);
+
+        var total = repository.reindexFrom("persons-old");
+
+        assertThat(total, is(3L));
+        var requests = server.requests();
+        assertThat(requests.stream().map(request -> request.method() + " " + request.path()).toList(), contains(
+                "HEAD /persons-cents", "PUT /persons-cents", "POST /_reindex",
+                "GET /_tasks/" + TASK, "GET /_tasks/" + TASK));
+        assertThat(requests.get(1).body(), containsString("\"creditLimitCents\":{\"type\":\"long\"}"));
+        var reindex = requests.get(2);
+        assertThat(reindex.query(), allOf(containsString("wait_for_completion=false"), containsString("refresh=true")));
+        assertThat(reindex.body(), allOf(
+                containsString("\"source\":{\"index\":"), containsString("persons-old"),
+                containsString("\"dest\":{\"index\":\"persons-cents\"}"),
+                containsString("creditLimitCents")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client"})
+    void keepExistingIndex(String implementation) throws IOException {
+        indexExists = true;
+        start(implementation);
+
+        repository.reindexFrom("persons-old");
+
+        assertThat(server.requests().stream().map(StubElasticServer.Request::method).toList(),
+                not(hasItem("PUT")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client"})
+    void failWhenTaskFails(String implementation) throws IOException {
+        indexExists = true;
+        taskError = "{\"type\":\"script_exception\",\"reason\":\"runtime error\"}";
+        start(implementation);
+
+        var e = assertThrows(RuntimeException.class, () -> repository.reindexFrom("persons-old"));
+        assertThat(e.getMessage(), containsString("runtime error"));
+    }
+
+    private void start(String implementation) throws IOException {
+        server = new StubElasticServer(this::respond);
+        var options = new RepositoryOptions.Builder().nodes(NodeSettings.of(server.url())).build();
+        repository = implementation.equals("http")
+                ? new HttpClientJsonPersonRepository("persons-cents", options)
+                : new ElasticClientPersonRepository("persons-cents", options);
+    }
+
+    private StubElasticServer.Response respond(StubElasticServer.Request request) {
+        if (request.is("HEAD", "/persons-cents")) {
+            return new StubElasticServer.Response(indexExists ? 200 : 404, "");
+        }
+        if (request.is("PUT", "/persons-cents")) {
+            return StubElasticServer.Response.ok(
+                    "{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\"persons-cents\"}");
+        }
+        if (request.is("POST", "/_reindex")) {
+            return StubElasticServer.Response.ok("{\"task\":\"" + TASK + "\"}");
+        }
+        if (runningPolls.getAndDecrement() > 0) {
+            return StubElasticServer.Response.ok("{\"completed\":false,\"task\":" + TASK_INFO + "}");
+        }
+        var result = taskError != null
+                ? "\"error\":" + taskError
+                : "\"response\":{\"took\":12,\"timed_out\":false,\"total\":3,\"created\":3,\"updated\":0,"
+                + "\"deleted\":0,\"batches\":1,\"version_conflicts\":0,\"noops\":0,\"failures\":[]}";
+        return StubElasticServer.Response.ok("{\"completed\":true,\"task\":" + TASK_INFO + "," + result + "}");
+    }
+}
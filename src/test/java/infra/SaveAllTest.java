@@ -0,0 +1,148 @@
+package infra;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import elastic.infra.BulkLimits;
+import elastic.infra.ElasticClientJsonPersonRepository;
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.HttpClientJsonPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.BulkResult;
+import elastic.model.Person;
+import elastic.model.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * saveAll against a stub that generates IDs for documents sent without one and rejects persons named "Bad".
+ */
+public class SaveAllTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AtomicInteger generatedIds = new AtomicInteger();
+    private StubElasticServer server;
+    private PersonRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        server.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void reportEachItemAndInitializeIds(String implementation) throws IOException {
+        start(implementation, BulkLimits.DEFAULT);
+        var ann = person(null, "Ann");
+        var bad = person("bad-1", "Bad");
+        var bob = person("bob-1", "Bob");
+
+        var result = repository.saveAll(List.of(ann, bad, bob));
+
+        assertThat(result.items().stream().map(BulkResult.Item::succeeded).toList(), contains(true, false, true));
+        assertThat(result.successCount(), is(2L));
+        var failure = result.failures().get(0);
+        assertThat(failure.person(), sameInstance(bad));
+        assertThat(failure.status(), is(400));
+        assertThat(failure.error(), is("name rejected"));
+        assertThat(ann.id(), is("gen-1"));
+        assertThat(result.items().get(0).id(), is("gen-1"));
+        assertThat(bob.id(), is("bob-1"));
+        assertThat(bulkRequests().size(), is(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void splitBatchesByDocumentCount(String implementation) throws IOException {
+        start(implementation, new BulkLimits(2, BulkLimits.DEFAULT.maxBytes()));
+
+        var result = repository.saveAll(persons(5));
+
+        assertThat(result.successCount(), is(5L));
+        assertThat(bulkRequests().stream().map(SaveAllTest::documents).toList(), contains(2, 2, 1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "client", "json-client"})
+    void splitBatchesByBytes(String implementation) throws IOException {
+        start(implementation, new BulkLimits(1000, 250));
+
+        var result = repository.saveAll(persons(5));
+
+        assertThat(result.successCount(), is(5L));
+        var bulkRequests = bulkRequests();
+        assertThat(bulkRequests.size(), allOf(greaterThan(1), lessThan(5)));
+        assertThat(bulkRequests.stream().mapToInt(SaveAllTest::documents).sum(), is(5));
+    }
+
+    private void start(String implementation, BulkLimits bulkLimits) throws IOException {
+        server = new StubElasticServer(this::respond);
+        var options = new RepositoryOptions.Builder()
+                .bulkLimits(bulkLimits)
+                .nodes(NodeSettings.of(server.url()))
+                .build();
+        repository = switch (implementation) {
+            case "http" -> new HttpClientJsonPersonRepository("persons", options);
+            case "client" -> new ElasticClientPersonRepository("persons", options);
+            default -> new ElasticClientJsonPersonRepository("persons", options);
+        };
+    }
+
+    private List<StubElasticServer.Request> bulkRequests() {
+        return server.requests().stream()
+                .filter(request -> request.is("POST", "/persons/_bulk"))
+                .toList();
+    }
+
+    private static int documents(StubElasticServer.Request request) {
+        return request.body().split("\n").length / 2;
+    }
+
+    private static List<Person> persons(int count) {
+        var persons = new ArrayList<Person>();
+        for (int i = 0; i < count; i++) {
+            persons.add(person("p-" + i, "Person number " + i));
+        }
+        return persons;
+    }
+
+    private static Person person(String id, String name) {
+        return new Person(id, name, LocalDate.of(1980, 1, 1), new BigDecimal("100.00"), true);
+    }
+
+    private StubElasticServer.Response respond(StubElasticServer.Request request) {
+        var lines = request.body().split("\n");
+        var items = new ArrayList<String>();
+        for (int i = 0; i + 1 < lines.length; i += 2) {
+            try {
+                var action = MAPPER.readTree(lines[i]).get("index");
+                var source = MAPPER.readTree(lines[i + 1]);
+                var id = action.has("_id") ? action.get("_id").asText() : "gen-" + generatedIds.incrementAndGet();
+                items.add(source.get("name").asText().equals("Bad")
+                        ? "{\"index\":{\"_index\":\"persons\",\"_id\":\"" + id + "\",\"status\":400,"
+                        + "\"error\":{\"type\":\"mapper_parsing_exception\",\"reason\":\"name rejected\"}}}"
+                        : "{\"index\":{\"_index\":\"persons\",\"_id\":\"" + id + "\",\"status\":201,"
+                        + "\"result\":\"created\",\"_version\":1,\"_seq_no\":0,\"_primary_term\":1,"
+                        + "\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0}}}");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        var errors = items.stream().anyMatch(item -> item.contains("\"error\""));
+        return StubElasticServer.Response.ok(
+                "{\"took\":3,\"errors\":" + errors + ",\"items\":[" + String.join(",", items) + "]}");
+    }
+}
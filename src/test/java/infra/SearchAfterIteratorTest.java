@@ -0,0 +1,74 @@
+package infra;
+
+import elastic.infra.SearchAfterIterator;
+import elastic.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SearchAfterIteratorTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    @Test
+    void iterateAllPagesPassingCursorForward() {
+        var cursors = new ArrayList<Integer>();
+        var iterator = new SearchAfterIterator<>(0, PAGE_SIZE, cursor -> {
+            cursors.add(cursor);
+            return page(cursor, Math.min(PAGE_SIZE, 5 - cursor));
+        });
+
+        var names = iterator.stream().map(Person::name).toList();
+
+        assertThat(names, contains("p0", "p1", "p2", "p3", "p4"));
+        assertThat(cursors, contains(0, 2, 4));
+        assertThat(iterator.cursor(), is(5));
+    }
+
+    @Test
+    void stopAfterEmptyPage() {
+        var cursors = new ArrayList<Integer>();
+        var iterator = new SearchAfterIterator<>(0, PAGE_SIZE, cursor -> {
+            cursors.add(cursor);
+            return page(cursor, cursor < 4 ? PAGE_SIZE : 0);
+        });
+
+        assertThat(iterator.stream().count(), is(4L));
+        assertThat(cursors, contains(0, 2, 4));
+    }
+
+    @Test
+    void keepPagingPastHitsWithoutSource() {
+        var iterator = new SearchAfterIterator<>(0, PAGE_SIZE, cursor -> {
+            var page = page(cursor, Math.min(PAGE_SIZE, 5 - cursor));
+            return cursor == 0
+                    ? new SearchAfterIterator.Page<>(page.persons().subList(0, 1), page.hits(), page.cursor())
+                    : page;
+        });
+
+        assertThat(iterator.stream().map(Person::name).toList(), contains("p0", "p2", "p3", "p4"));
+    }
+
+    @Test
+    void failWhenExhausted() {
+        var iterator = new SearchAfterIterator<>(0, PAGE_SIZE, cursor -> page(cursor, 0));
+
+        assertThat(iterator.hasNext(), is(false));
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    private static SearchAfterIterator.Page<Integer> page(int from, int count) {
+        var persons = IntStream.range(from, from + count)
+                .mapToObj(i -> new Person("id" + i, "p" + i, null, null, false))
+                .toList();
+        return new SearchAfterIterator.Page<>(persons, count, from + count);
+    }
+
+}
@@ -0,0 +1,112 @@
+package infra;
+
+import elastic.infra.PersonDocument;
+import elastic.infra.SearchResponseReader;
+import elastic.infra.Serializer;
+import elastic.infra.WireFormat;
+import elastic.model.Person;
+import elastic.model.PersonBatch;
+import elastic.model.PersonProjection;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SearchResponseReaderTest {
+
+    private final SearchResponseReader reader = new SearchResponseReader(new Serializer());
+
+    @Test
+    void readHitsOneByOne() throws IOException {
+        var json = """
+                {"pit_id":"pit1","took":7,"timed_out":false,
+                 "_shards":{"total":1,"successful":1},
+                 "hits":{"total":{"value":2,"relation":"eq"},"max_score":null,"hits":[
+                   {"_index":"persons","_id":"id1","_score":null,
+                    "_source":{"name":"Anna","birthDate":1,"creditLimitCents":1050,"customer":true},
+                    "sort":[3]},
+                   {"_index":"persons","_id":"id2","_score":null,
+                    "_source":{"name":"João","birthDate":null,"creditLimitCents":null,"customer":false,"extra":[1,2]},
+                    "sort":[8]}
+                 ]}}""";
+        var persons = new ArrayList<Person>();
+
+        var summary = reader.read(stream(json), persons::add);
+
+        assertThat(persons, contains(
+                new Person("id1", "Anna", LocalDate.of(1970, 1, 2), new BigDecimal("10.50"), true),
+                new Person("id2", "João", null, null, false)));
+        assertThat(summary.hits(), is(2));
+        assertThat(summary.pitId(), is("pit1"));
+        assertThat(summary.took(), is(7L));
+        assertThat(summary.lastSort(), contains(8));
+    }
+
+    @Test
+    void readEmptyHits() throws IOException {
+        var persons = new ArrayList<Person>();
+
+        var summary = reader.read(stream("{\"took\":1,\"hits\":{\"hits\":[]}}"), persons::add);
+
+        assertThat(persons, empty());
+        assertThat(summary.hits(), is(0));
+        assertThat(summary.pitId(), nullValue());
+        assertThat(summary.lastSort(), empty());
+    }
+
+    @Test
+    void readProjectedAndSourcelessHits() throws IOException {
+        var json = """
+                {"took":2,"hits":{"hits":[
+                   {"_index":"persons","_id":"id1","_score":1.0,"_source":{"name":"Anna"}},
+                   {"_index":"persons","_id":"id2","_score":0.5}
+                 ]}}""";
+        var projections = new ArrayList<PersonProjection>();
+
+        var summary = reader.readDocuments(stream(json),
+                (id, source) -> projections.add(PersonDocument.projection(id, source)));
+
+        assertThat(projections, contains(
+                new PersonProjection("id1", "Anna", null, null, null),
+                new PersonProjection("id2", null, null, null, null)));
+        assertThat(summary.hits(), is(2));
+    }
+
+    @Test
+    void readHitsIntoBatch() throws IOException {
+        var json = """
+                {"pit_id":"pit1","took":3,"hits":{"hits":[
+                   {"_id":"id1","_source":{"name":"Anna","birthDate":1,"creditLimitCents":1050,"customer":true},"sort":[3]},
+                   {"_id":"id2"},
+                   {"_id":"id3","_source":{"name":"João","birthDate":null,"creditLimitCents":null,"extra":{"a":1}},"sort":[8]}
+                 ]}}""";
+        var batch = new PersonBatch(1);
+
+        var summary = reader.readBatch(stream(json), WireFormat.JSON, batch);
+
+        assertThat(batch.size(), is(2));
+        assertThat(batch.toPerson(0), is(new Person("id1", "Anna", LocalDate.of(1970, 1, 2), new BigDecimal("10.50"), true)));
+        assertThat(batch.toPerson(1), is(new Person("id3", "João", null, null, false)));
+        assertThat(summary.hits(), is(3));
+        assertThat(summary.pitId(), is("pit1"));
+        assertThat(summary.lastSort(), contains(8));
+    }
+
+    @Test
+    void rejectUnexpectedResponse() {
+        assertThrows(IOException.class, () -> reader.read(stream("[]"), person -> { }));
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
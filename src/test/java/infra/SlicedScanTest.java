@@ -0,0 +1,130 @@
+package infra;
+
+import elastic.infra.ElasticClientPersonRepository;
+import elastic.infra.NodeSettings;
+import elastic.infra.RepositoryOptions;
+import elastic.model.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sliced scans against a stub answering each slice with a full page of two hits and then a last page of one.
+ */
+public class SlicedScanTest {
+
+    private static final Pattern SLICE_ID = Pattern.compile("\"slice\":\\{\"id\":\"(\\d+)\"");
+
+    private volatile boolean firstHitWithoutSource;
+    private StubElasticServer server;
+    private ElasticClientPersonRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StubElasticServer(this::respond);
+        repository = new ElasticClientPersonRepository("persons", new RepositoryOptions.Builder()
+                .pageSize(2)
+                .nodes(NodeSettings.of(server.url()))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        server.close();
+    }
+
+    @Test
+    void mergeSlicesAndAccumulateStats() {
+        var ids = new ArrayList<String>();
+
+        var stats = repository.scanSliced(false, 3, batch -> {
+            synchronized (ids) {
+                batch.stream().map(Person::id).forEach(ids::add);
+            }
+        });
+
+        assertThat(ids, containsInAnyOrder("s0-0", "s0-1", "s0-2", "s1-0", "s1-1", "s1-2", "s2-0", "s2-1", "s2-2"));
+        assertThat(stats.documents(), is(9L));
+        assertThat(stats.batches(), is(6L));
+        assertThat(stats.slices(), is(3));
+        assertThat(lastRequest().is("DELETE", "/_pit"), is(true));
+    }
+
+    @Test
+    void keepScanningPastHitWithoutSource() {
+        firstHitWithoutSource = true;
+        var ids = new ArrayList<String>();
+
+        var stats = repository.scanSliced(false, 1, batch -> batch.stream().map(Person::id).forEach(ids::add));
+
+        assertThat(ids, contains("s0-1", "s0-2"));
+        assertThat(stats.documents(), is(2L));
+        assertThat(stats.batches(), is(2L));
+    }
+
+    @Test
+    void failWhenExecutorRejectsSlice() {
+        var accepted = new AtomicInteger();
+        Executor overloaded = command -> {
+            if (accepted.getAndIncrement() > 0) {
+                throw new RejectedExecutionException("Executor is full");
+            }
+            new Thread(command).start();
+        };
+
+        assertThrows(RejectedExecutionException.class,
+                () -> repository.scanSliced(false, 3, overloaded, batch -> { }));
+        assertThat("point in time closed after the running slice", lastRequest().is("DELETE", "/_pit"), is(true));
+        assertThat(server.requests().stream().filter(request -> request.is("DELETE", "/_pit")).count(), is(1L));
+    }
+
+    @Test
+    void rejectNonPositiveSlices() {
+        assertThrows(IllegalArgumentException.class, () -> repository.scanSliced(false, 0, batch -> { }));
+    }
+
+    private StubElasticServer.Request lastRequest() {
+        var requests = server.requests();
+        return requests.get(requests.size() - 1);
+    }
+
+    private StubElasticServer.Response respond(StubElasticServer.Request request) {
+        if (request.is("POST", "/persons/_pit")) {
+            return StubElasticServer.Response.ok("{\"id\":\"pit\"}");
+        }
+        if (request.is("DELETE", "/_pit")) {
+            return StubElasticServer.Response.ok("{\"succeeded\":true,\"num_freed\":1}");
+        }
+        var matcher = SLICE_ID.matcher(request.body());
+        var slice = matcher.find() ? matcher.group(1) : "0";
+        var hits = request.body().contains("search_after")
+                ? List.of(hit(slice, 2))
+                : List.of(firstHitWithoutSource ? hitWithoutSource(slice) : hit(slice, 0), hit(slice, 1));
+        return StubElasticServer.Response.ok("{\"took\":1,\"timed_out\":false,\"pit_id\":\"pit\","
+                + "\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},"
+                + "\"hits\":{\"hits\":[" + String.join(",", hits) + "]}}");
+    }
+
+    private static String hitWithoutSource(String slice) {
+        return "{\"_index\":\"persons\",\"_id\":\"s" + slice + "-0\",\"_score\":null,\"sort\":[0]}";
+    }
+
+    private static String hit(String slice, int n) {
+        return "{\"_index\":\"persons\",\"_id\":\"s" + slice + "-" + n + "\",\"_score\":null,"
+                + "\"_source\":{\"name\":\"Person " + n + "\",\"birthDate\":0,\"creditLimitCents\":100,"
+                + "\"customer\":true},\"sort\":[" + n + "]}";
+    }
+}
@@ -0,0 +1,76 @@
+package infra;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Local HTTP server answering every request with the status and JSON of the given responder and recording
+ * what it received. Responses carry the product header the Java client checks.
+ */
+class StubElasticServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    StubElasticServer(Function<Request, Response> responder) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                var uri = exchange.getRequestURI();
+                var request = new Request(exchange.getRequestMethod(), uri.getPath(), uri.getQuery(),
+                        new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                requests.add(request);
+                var response = responder.apply(request);
+                var body = response.json().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.getResponseHeaders().set("X-Elastic-Product", "Elasticsearch");
+                if (request.method().equals("HEAD")) {
+                    exchange.sendResponseHeaders(response.status(), -1);
+                } else {
+                    exchange.sendResponseHeaders(response.status(), body.length);
+                    exchange.getResponseBody().write(body);
+                }
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    List<Request> requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    record Response(int status, String json) {
+
+        static Response ok(String json) {
+            return new Response(200, json);
+        }
+    }
+
+    record Request(String method, String path, String query, String body) {
+
+        boolean is(String method, String path) {
+            return this.method.equals(method) && this.path.equals(path);
+        }
+    }
+}
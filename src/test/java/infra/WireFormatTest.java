@@ -0,0 +1,77 @@
+package infra;
+
+import elastic.infra.PersonDocument;
+import elastic.infra.SearchResponseReader;
+import elastic.infra.Serializer;
+import elastic.infra.WireFormat;
+import elastic.model.Person;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class WireFormatTest {
+
+    private static final Person PERSON = new Person("id1", "Anna", LocalDate.of(1980, 5, 17),
+            new BigDecimal("1500.25"), true);
+
+    private final Serializer serializer = new Serializer();
+
+    @ParameterizedTest
+    @CsvSource(value = {
+            "application/json; charset=UTF-8, JSON",
+            "application/vnd.elasticsearch+json;compatible-with=8, JSON",
+            "application/smile, SMILE",
+            "application/vnd.elasticsearch+smile;compatible-with=8, SMILE",
+            "application/cbor, CBOR",
+            "text/plain, JSON",
+            "null, JSON"}, nullValues = "null")
+    void negotiateFormatFromContentType(String contentType, WireFormat expected) {
+        assertThat(WireFormat.fromContentType(contentType), is(expected));
+    }
+
+    @ParameterizedTest
+    @EnumSource(WireFormat.class)
+    void readSearchResponseInEveryFormat(WireFormat format) throws IOException {
+        var response = Map.of("took", 3, "hits", Map.of("hits", List.of(
+                Map.of("_id", "id1", "_source", PersonDocument.of(PERSON)))));
+        var bytes = serializer.toBytes(response, format);
+        var persons = new ArrayList<Person>();
+
+        var summary = new SearchResponseReader(serializer)
+                .read(new ByteArrayInputStream(bytes), format, persons::add);
+
+        assertThat(persons, contains(PERSON));
+        assertThat(summary.took(), is(3L));
+    }
+
+    @Test
+    void encodeBinaryFormatsMoreCompactlyThanJson() {
+        var document = PersonDocument.of(PERSON);
+
+        var json = serializer.toBytes(document, WireFormat.JSON);
+
+        assertThat(serializer.toBytes(document, WireFormat.SMILE).length, lessThan(json.length));
+        assertThat(serializer.toBytes(document, WireFormat.CBOR).length, lessThan(json.length));
+    }
+
+    @Test
+    void fallBackToJsonForCborBulkBodies() {
+        assertThat(WireFormat.CBOR.bulkFormat().format(), is(WireFormat.JSON));
+        assertThat(WireFormat.CBOR.bulkFormat().mediaType(), is("application/x-ndjson"));
+        assertThat(WireFormat.CBOR.bulkFormat().separator(), is((byte) '\n'));
+        assertThat(WireFormat.SMILE.bulkFormat().mediaType(), is("application/smile"));
+        assertThat(WireFormat.SMILE.bulkFormat().separator(), is((byte) 0xFF));
+    }
+}
@@ -0,0 +1,65 @@
+package load;
+
+import elastic.load.LoadTestOptions;
+import elastic.load.OperationMix;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LoadTestOptionsTest {
+
+    @Test
+    void useDefaultsWhenNoOptionGiven() {
+        var options = LoadTestOptions.parse("--load-test");
+
+        assertThat(options.implementation(), is(LoadTestOptions.Implementation.HTTP_CLIENT_JSON));
+        assertThat(options.persons(), is(10_000));
+        assertThat(options.threads(), is(16));
+        assertThat(options.mix(), is(OperationMix.DEFAULT));
+        assertThat(options.duration(), is(Duration.ofSeconds(60)));
+        assertThat(options.keepIndex(), is(false));
+    }
+
+    @Test
+    void requireLoadTestFlag() {
+        assertThat(LoadTestOptions.requested("--persons=500", "--load-test"), is(true));
+        assertThat(LoadTestOptions.requested("--persons=500"), is(false));
+        assertThat(LoadTestOptions.requested(), is(false));
+    }
+
+    @Test
+    void parseAllOptions() {
+        var options = LoadTestOptions.parse("--repository=client", "--index=load", "--persons=500", "--seed=7",
+                "--threads=4", "--mix=read:1,write:2,query:3", "--duration=1500ms", "--keep-index");
+
+        assertThat(options.implementation(), is(LoadTestOptions.Implementation.ELASTIC_CLIENT));
+        assertThat(options.indexName(), is("load"));
+        assertThat(options.persons(), is(500));
+        assertThat(options.seed(), is(7L));
+        assertThat(options.threads(), is(4));
+        assertThat(options.mix(), is(new OperationMix(1, 2, 3)));
+        assertThat(options.duration(), is(Duration.ofMillis(1500)));
+        assertThat(options.keepIndex(), is(true));
+    }
+
+    @Test
+    void pickOperationsByWeight() {
+        var mix = OperationMix.parse("read:2,query:1");
+
+        assertThat(mix.pick(0), is(OperationMix.Operation.READ));
+        assertThat(mix.pick(1), is(OperationMix.Operation.READ));
+        assertThat(mix.pick(2), is(OperationMix.Operation.QUERY));
+    }
+
+    @Test
+    void rejectInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--threads=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--repository=jdbc"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=read:0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--verbose"));
+    }
+}
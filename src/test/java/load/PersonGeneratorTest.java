@@ -0,0 +1,43 @@
+package load;
+
+import elastic.load.PersonGenerator;
+import elastic.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PersonGeneratorTest {
+
+    @Test
+    void generateSamePersonsForSameSeed() {
+        assertThat(generate(7, 100), is(generate(7, 100)));
+    }
+
+    @Test
+    void generateDifferentPersonsForDifferentSeeds() {
+        assertThat(generate(7, 100), is(not(generate(8, 100))));
+    }
+
+    @Test
+    void generateValidPersons() {
+        for (var person : generate(42, 1000)) {
+            assertThat(person.id(), is(nullValue()));
+            assertThat(person.name(), matchesPattern("\\w+ \\w+"));
+            assertThat(person.birthDate(), is(both(greaterThanOrEqualTo(LocalDate.of(1940, 1, 1)))
+                    .and(lessThan(LocalDate.of(2005, 1, 1)))));
+            assertThat(person.creditLimit(), is(both(greaterThanOrEqualTo(BigDecimal.ZERO))
+                    .and(lessThanOrEqualTo(BigDecimal.valueOf(10_000)))));
+        }
+    }
+
+    private static List<Person> generate(long seed, int count) {
+        var generator = new PersonGenerator(seed);
+        return Stream.generate(generator::next).limit(count).toList();
+    }
+}
@@ -0,0 +1,32 @@
+package model;
+
+import elastic.model.CreditLimitStats;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CreditLimitStatsTest {
+
+    @Test
+    void convertCentAggregatesToAmounts() {
+        var stats = CreditLimitStats.ofCents(3, 1000, 2050, 1516.6666, 4550);
+
+        assertThat(stats.count(), is(3L));
+        assertThat(stats.min(), is(new BigDecimal("10.00")));
+        assertThat(stats.max(), is(new BigDecimal("20.50")));
+        assertThat(stats.average(), is(new BigDecimal("15.17")));
+        assertThat(stats.sum(), is(new BigDecimal("45.50")));
+    }
+
+    @Test
+    void returnEmptyStatsWhenNothingMatched() {
+        var stats = CreditLimitStats.ofCents(0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN, 0);
+
+        assertThat(stats, is(CreditLimitStats.EMPTY));
+        assertThat(stats.min(), is(nullValue()));
+        assertThat(stats.sum(), is(BigDecimal.ZERO));
+    }
+}
@@ -0,0 +1,38 @@
+package model;
+
+import elastic.model.MoneyConverter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MoneyConverterTest {
+
+    @Test
+    void roundTripAmountsAtCentScale() {
+        assertThat(MoneyConverter.toCents(new BigDecimal("1234.5")), is(123450L));
+        assertThat(MoneyConverter.fromCents(123450L), is(new BigDecimal("1234.50")));
+        assertThat(MoneyConverter.fromCents(MoneyConverter.toCents(new BigDecimal("-0.07"))), is(new BigDecimal("-0.07")));
+    }
+
+    @Test
+    void keepNullAmounts() {
+        assertThat(MoneyConverter.toCents(null), is(nullValue()));
+        assertThat(MoneyConverter.fromCents(null), is(nullValue()));
+    }
+
+    @Test
+    void rejectSubCentAmounts() {
+        assertThrows(IllegalArgumentException.class, () -> MoneyConverter.toCents(new BigDecimal("1.005")));
+    }
+
+    @Test
+    void roundQueryBoundsInward() {
+        assertThat(MoneyConverter.toCents(new BigDecimal("1.001"), RoundingMode.CEILING), is(101L));
+        assertThat(MoneyConverter.toCents(new BigDecimal("1.009"), RoundingMode.FLOOR), is(100L));
+    }
+}
@@ -0,0 +1,86 @@
+package model;
+
+import elastic.model.Person;
+import elastic.model.PersonBatch;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PersonBatchTest {
+
+    @Test
+    void growBeyondInitialCapacity() {
+        var batch = new PersonBatch(1);
+        var persons = IntStream.range(0, 100)
+                .mapToObj(i -> new Person("id" + i, "Person Number " + i, LocalDate.of(1950, 1, 1).plusDays(i),
+                        BigDecimal.valueOf(100_000 + i, 2), i % 3 == 0))
+                .toList();
+
+        persons.forEach(batch::add);
+
+        assertThat(batch.size(), is(100));
+        assertThat(batch.customerCount(), is(34));
+        assertThat(batch.toPerson(99), is(persons.get(99)));
+        assertThat(batch.creditLimitCents(42), is(100_042L));
+        assertThat(batch.birthDate(0), is((int) LocalDate.of(1950, 1, 1).toEpochDay()));
+    }
+
+    @Test
+    void keepAbsentColumnsApart() {
+        var batch = new PersonBatch(4);
+
+        var row = batch.addRow();
+
+        assertThat(batch.id(row), is(nullValue()));
+        assertThat(batch.name(row), is(nullValue()));
+        assertThat(batch.hasBirthDate(row), is(false));
+        assertThat(batch.hasCreditLimit(row), is(false));
+        assertThat(batch.isCustomer(row), is(false));
+    }
+
+    @Test
+    void reuseAfterClear() {
+        var batch = new PersonBatch(2);
+        batch.add(new Person("id1", "Anna", LocalDate.of(1980, 5, 1), new BigDecimal("1.00"), true));
+        batch.add(new Person("id2", "Bob", null, null, false));
+
+        batch.clear();
+        batch.add(new Person("id3", "Carla", null, null, false));
+
+        assertThat(batch.size(), is(1));
+        assertThat(batch.toPerson(0), is(new Person("id3", "Carla", null, null, false)));
+        assertThat(batch.customerCount(), is(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.id(1));
+    }
+
+    @Test
+    void removeLastRowWithItsText() {
+        var batch = new PersonBatch(2);
+        batch.add(new Person("id1", "Anna", null, null, true));
+        var row = batch.addRow();
+        batch.setName(row, "Dropped");
+        batch.setCustomer(row, true);
+
+        batch.removeLastRow();
+        batch.add(new Person("id2", "Bob", null, null, false));
+
+        assertThat(batch.name(1), is("Bob"));
+        assertThat(batch.isCustomer(1), is(false));
+        assertThat(batch.name(0), is("Anna"));
+    }
+
+    @Test
+    void onlyFillTheLastRow() {
+        var batch = new PersonBatch(2);
+        batch.addRow();
+        batch.addRow();
+
+        assertThrows(IllegalArgumentException.class, () -> batch.setName(0, "Anna"));
+    }
+}
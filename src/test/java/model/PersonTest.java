@@ -97,6 +97,26 @@ public class PersonTest {
         assertThat(exception.getMessage(), containsString("Credit limit cannot be negative!"));
     }
 
+    @Test
+    void throwsExceptionWhenCreditLimitHasFractionsOfACent() {
+        var exception = assertThrows(IllegalArgumentException.class, () -> {
+            new Person(ANY_ID, ANY_NAME, ANY_BIRTH_DATE, new BigDecimal("10.005"), false);
+        });
+
+        assertThat(exception.getMessage(), containsString("Credit limit cannot have fractions of a cent!"));
+        assertThat(new Person(ANY_ID, ANY_NAME, ANY_BIRTH_DATE, new BigDecimal("10.500"), false).creditLimit(),
+                is(new BigDecimal("10.500")));
+    }
+
+    @Test
+    void equalsPersonWithCreditLimitAtOtherScale() {
+        var person = new Person(ANY_ID, ANY_NAME, ANY_BIRTH_DATE, new BigDecimal("1234.5"), false);
+
+        assertThat(person, is(new Person(ANY_ID, ANY_NAME, ANY_BIRTH_DATE, new BigDecimal("1234.50"), false)));
+        assertThat(person, not(new Person(ANY_ID, ANY_NAME, ANY_BIRTH_DATE, new BigDecimal("1234.51"), false)));
+        assertThat(person, not(new Person(ANY_ID, ANY_NAME, ANY_BIRTH_DATE, null, false)));
+    }
+
     private static Stream<String> nullOrEmptyNameProvider() {
         return Stream.of(null, "", " ");
     }